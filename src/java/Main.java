@@ -1,44 +1,63 @@
+import cache.InvalidationBus;
+import config.DBConnection;
+import config.UnitOfWork;
+import criteria.EnrollmentCriteria;
+import criteria.StudentCriteria;
 import model.Course;
+import model.CourseGradeSummary;
 import model.Student;
 import model.Enrollment;
+import report.ReportColumn;
+import report.ReportColumns;
+import report.ReportFormat;
+import report.ReportWriter;
 import service.CourseService;
+import service.CourseStatsService;
 import service.EnrollmentService;
 import service.StudentService;
-import utils.PrintUtils;
 import utils.SqlUtils;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class Main {
     private static StudentService studentService = new StudentService();
     private static CourseService courseService = new CourseService();
     private static EnrollmentService enrollmentService = new EnrollmentService();
+    private static CourseStatsService courseStatsService = CourseStatsService.getShared();
 
     public static void main(String[] args) {
+        warmUpDatabase();
+        InvalidationBus.start();
+
         SqlUtils.truncateTables("student", "course", "enrollment");
 
         List<Student> students = buildStudentList();
         List<Course> courses = buildCourseList();
 
-        studentService.registerStudents(students);
-        courseService.registerCourses(courses);
+        UnitOfWork.run(() -> {
+            studentService.registerStudents(students);
+            courseService.registerCourses(courses);
 
-        List<Enrollment> enrollments = buildEnrollmentList(students, courses);
+            List<Enrollment> enrollments = buildEnrollmentList(students, courses);
 
-        enrollmentService.registerEnrollment(enrollments);
+            enrollmentService.registerEnrollment(enrollments);
+        });
 
-//        List<Student> filteredStudents = studentService.findAndFilterStudents(s -> s.getGpa() > 3.5);
-//        long studentsCount = studentService.countStudents(s -> LocalDate.now().getYear() - s.getYear() > 24);
+//        List<Student> filteredStudents = studentService.findAndFilterStudents(StudentCriteria.gpaGreaterThan(3.5));
+//        long studentsCount = studentService.countStudents(StudentCriteria.yearBefore(LocalDate.now().getYear() - 24));
 
-//        PrintUtils.printList(filteredStudents, "Students GPA > 3.5");
+//        printStudents(filteredStudents.stream(), "Students GPA > 3.5");
 //        System.out.println("Students older than 24 years old count: " + studentsCount);
 //        printStudentsByGpaAndDepartment(3.5, "Computer Science");
 //        printStudentsByCourseIdAfterDate(4);
@@ -97,71 +116,70 @@ public class Main {
         );
     }
 
+    public static void warmUpDatabase() {
+        try {
+            Duration elapsed = DBConnection.warmUp();
+
+            System.out.println("Database pool warmed up in " + elapsed.toMillis() + " ms ("
+                    + DBConnection.getPoolStats().getTotal() + " connections).");
+        } catch (SQLException e) {
+            throw new RuntimeException("Warming up database failed.", e);
+        }
+    }
+
     public static void printStudentsByGpaAndDepartment(double gpa, String department) {
         List<Integer> studentIdsByDepartment = enrollmentService.getStudentIdsByDepartment(department);
 
         List<Student> students = studentService.findAndFilterStudents(
-                student -> student.getGpa() > gpa && studentIdsByDepartment.contains(student.getId())
+                StudentCriteria.gpaGreaterThan(gpa).and(StudentCriteria.idIn(studentIdsByDepartment))
         );
 
-        PrintUtils.printList(students, "Students by gpa and department");
+        printStudents(students.stream(), "Students by gpa and department");
     }
 
     public static void printStudentsByCourseIdAfterDate(int courseId) {
         LocalDate date = LocalDate.of(2024, 1, 1);
 
         List<Student> students = enrollmentService.findStudentsByEnrollment(
-                enrollment -> enrollment.getCourseId() == courseId && enrollment.getDate().isAfter(date)
+                EnrollmentCriteria.courseIdEquals(courseId).and(EnrollmentCriteria.dateAfter(date))
         );
 
-        PrintUtils.printList(students, "Students by course id after date");
+        printStudents(students.stream(), "Students by course id after date");
     }
 
     public static void printCoursesWithAverageHigherThan(double minAvg) {
-        List<Course> courses = courseService.findAllCourses();
-        List<Enrollment> enrollments = new EnrollmentService().findAllEnrollments();
-
-        Map<Integer, List<Integer>> courseIdWithGrades = new HashMap<>();
+        List<CourseGradeSummary> summaries = courseStatsService.findSummariesWithAverageAbove(minAvg);
 
-        for (Enrollment enrollment: enrollments) {
-            int courseId = enrollment.getId();
-            int grade = enrollment.getGrade();
+        List<Integer> courseIds = summaries.stream().map(CourseGradeSummary::getCourseId).toList();
+        Map<Integer, Course> coursesById = courseService.findCoursesByIds(courseIds)
+                .stream()
+                .collect(Collectors.toMap(Course::getId, course -> course));
 
-            if (!courseIdWithGrades.containsKey(courseId)) {
-                courseIdWithGrades.put(courseId, new ArrayList<>());
-            }
+        List<ReportColumn<CourseGradeSummary>> columns = List.of(
+                new ReportColumn<>("id", 8, CourseGradeSummary::getCourseId),
+                new ReportColumn<>("title", 28, summary -> coursesById.get(summary.getCourseId()).getTitle()),
+                new ReportColumn<>("department", 20, summary -> coursesById.get(summary.getCourseId()).getDepartment()),
+                new ReportColumn<>("average", 8, summary -> String.format("%.2f", summary.getAverage()))
+        );
 
-            courseIdWithGrades.get(courseId).add(grade);
+        try (ReportWriter<CourseGradeSummary> report = ReportWriter.toStdout(ReportFormat.TABLE, columns, "Courses with average higher than " + minAvg)) {
+            report.writeAll(summaries.stream());
         }
+    }
 
-        System.out.println("-------------------------");
-        System.out.println();
+    public static void printStudents(Stream<Student> students, String title) {
+        try (ReportWriter<Student> report = ReportWriter.toStdout(ReportFormat.TABLE, ReportColumns.students(), title)) {
+            report.writeAll(students);
+        }
+    }
 
-        courses
-                .stream()
-                .forEach(course -> {
-                    List<Integer> gradeList = courseIdWithGrades.get(course.getId());
-
-                    double avg = gradeList
-                            .stream()
-                            .mapToInt(Integer::intValue)
-                            .average()
-                            .orElse(0);
-
-                    if (avg > minAvg) {
-                        System.out.println(course.toString() + "\nAverage Grade: " + avg);
-                        System.out.println();
-                        System.out.println("-------------------------");
-                        System.out.println();
-                    }
-                });
+    public static void exportStudents(Path path, ReportFormat format) throws IOException {
+        try (ReportWriter<Student> report = ReportWriter.toFile(path, format, ReportColumns.students(), null)) {
+            studentService.forEachStudent(report::writeRow);
+        }
     }
 
     public static void printStudentsNameInUppercase(Consumer<Student> consumer) {
-        List<Student> students = studentService.findAllStudents();
-
-        students
-                .stream()
-                .forEach(consumer);
+        studentService.forEachStudent(consumer);
     }
 }
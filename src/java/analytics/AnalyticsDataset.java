@@ -0,0 +1,238 @@
+package analytics;
+
+import model.Course;
+import model.Enrollment;
+import model.Student;
+import repository.CourseRepository;
+import repository.EnrollmentRepository;
+import repository.StudentRepository;
+import snapshot.SnapshotReader;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class AnalyticsDataset {
+    // Stored in the day column for enrollments without a date.
+    public static final int NO_DAY = Integer.MIN_VALUE;
+    // Stored in the grade column for enrollments without a grade.
+    public static final byte NO_GRADE = -1;
+
+    private final int[] studentIds;
+    private final int[] studentMajors;
+    private final double[] studentGpas;
+    private final String[] majors;
+
+    private final int[] departmentByCourseId;
+    private final int[] creditsByCourseId;
+    private final String[] departments;
+
+    private final int[] enrollmentStudentIds;
+    private final int[] enrollmentCourseIds;
+    private final int[] enrollmentDays;
+    private final byte[] enrollmentGrades;
+
+    public AnalyticsDataset(
+            int[] studentIds, int[] studentMajors, double[] studentGpas, String[] majors,
+            int[] departmentByCourseId, int[] creditsByCourseId, String[] departments,
+            int[] enrollmentStudentIds, int[] enrollmentCourseIds, int[] enrollmentDays, byte[] enrollmentGrades
+    ) {
+        if (studentIds.length != studentMajors.length || studentIds.length != studentGpas.length)
+            throw new IllegalArgumentException("Student columns must have the same length.");
+
+        if (departmentByCourseId.length != creditsByCourseId.length)
+            throw new IllegalArgumentException("Course columns must have the same length.");
+
+        if (enrollmentStudentIds.length != enrollmentCourseIds.length || enrollmentStudentIds.length != enrollmentDays.length || enrollmentStudentIds.length != enrollmentGrades.length)
+            throw new IllegalArgumentException("Enrollment columns must have the same length.");
+
+        this.studentIds = studentIds;
+        this.studentMajors = studentMajors;
+        this.studentGpas = studentGpas;
+        this.majors = majors;
+        this.departmentByCourseId = departmentByCourseId;
+        this.creditsByCourseId = creditsByCourseId;
+        this.departments = departments;
+        this.enrollmentStudentIds = enrollmentStudentIds;
+        this.enrollmentCourseIds = enrollmentCourseIds;
+        this.enrollmentDays = enrollmentDays;
+        this.enrollmentGrades = enrollmentGrades;
+    }
+
+    public static AnalyticsDataset load() throws SQLException {
+        Builder builder = new Builder();
+
+        try (Stream<Student> students = new StudentRepository().streamAll()) {
+            students.forEach(builder::addStudent);
+        }
+
+        try (Stream<Course> courses = new CourseRepository().streamAll()) {
+            courses.forEach(builder::addCourse);
+        }
+
+        try (Stream<Enrollment> enrollments = new EnrollmentRepository().streamAll()) {
+            enrollments.forEach(builder::addEnrollment);
+        }
+
+        return builder.build();
+    }
+
+    public static AnalyticsDataset fromSnapshot(SnapshotReader reader) throws IOException {
+        Builder builder = new Builder();
+
+        reader.forEachStudent(builder::addStudent);
+        reader.forEachCourse(builder::addCourse);
+        reader.forEachEnrollment(builder::addEnrollment);
+
+        return builder.build();
+    }
+
+    public int getStudentCount() {
+        return studentIds.length;
+    }
+
+    public int getEnrollmentCount() {
+        return enrollmentStudentIds.length;
+    }
+
+    public int[] getStudentIds() {
+        return studentIds;
+    }
+
+    public int[] getStudentMajors() {
+        return studentMajors;
+    }
+
+    public double[] getStudentGpas() {
+        return studentGpas;
+    }
+
+    public String[] getMajors() {
+        return majors;
+    }
+
+    public int[] getDepartmentByCourseId() {
+        return departmentByCourseId;
+    }
+
+    public int[] getCreditsByCourseId() {
+        return creditsByCourseId;
+    }
+
+    public String[] getDepartments() {
+        return departments;
+    }
+
+    public int[] getEnrollmentStudentIds() {
+        return enrollmentStudentIds;
+    }
+
+    public int[] getEnrollmentCourseIds() {
+        return enrollmentCourseIds;
+    }
+
+    public int[] getEnrollmentDays() {
+        return enrollmentDays;
+    }
+
+    public byte[] getEnrollmentGrades() {
+        return enrollmentGrades;
+    }
+
+    public int departmentCode(String department) {
+        return Arrays.asList(departments).indexOf(department);
+    }
+
+    private static class Builder {
+        private final Map<String, Integer> majorCodes = new HashMap<>();
+        private final List<String> majors = new ArrayList<>();
+        private final Map<String, Integer> departmentCodes = new HashMap<>();
+        private final List<String> departments = new ArrayList<>();
+
+        private int[] studentIds = new int[1024];
+        private int[] studentMajors = new int[1024];
+        private double[] studentGpas = new double[1024];
+        private int studentCount;
+
+        private int[] departmentByCourseId = new int[0];
+        private int[] creditsByCourseId = new int[0];
+
+        private int[] enrollmentStudentIds = new int[1024];
+        private int[] enrollmentCourseIds = new int[1024];
+        private int[] enrollmentDays = new int[1024];
+        private byte[] enrollmentGrades = new byte[1024];
+        private int enrollmentCount;
+
+        void addStudent(Student student) {
+            if (studentCount == studentIds.length) {
+                int capacity = studentCount * 2;
+                studentIds = Arrays.copyOf(studentIds, capacity);
+                studentMajors = Arrays.copyOf(studentMajors, capacity);
+                studentGpas = Arrays.copyOf(studentGpas, capacity);
+            }
+
+            studentIds[studentCount] = student.getId();
+            studentMajors[studentCount] = code(student.getMajor(), majorCodes, majors);
+            studentGpas[studentCount] = student.getGpa();
+            studentCount++;
+        }
+
+        void addCourse(Course course) {
+            int courseId = course.getId();
+
+            if (courseId >= departmentByCourseId.length) {
+                int previousLength = departmentByCourseId.length;
+                departmentByCourseId = Arrays.copyOf(departmentByCourseId, Math.max(courseId + 1, previousLength * 2));
+                Arrays.fill(departmentByCourseId, previousLength, departmentByCourseId.length, -1);
+                creditsByCourseId = Arrays.copyOf(creditsByCourseId, departmentByCourseId.length);
+            }
+
+            departmentByCourseId[courseId] = code(course.getDepartment(), departmentCodes, departments);
+            creditsByCourseId[courseId] = course.getCredits();
+        }
+
+        void addEnrollment(Enrollment enrollment) {
+            if (enrollmentCount == enrollmentStudentIds.length) {
+                int capacity = enrollmentCount * 2;
+                enrollmentStudentIds = Arrays.copyOf(enrollmentStudentIds, capacity);
+                enrollmentCourseIds = Arrays.copyOf(enrollmentCourseIds, capacity);
+                enrollmentDays = Arrays.copyOf(enrollmentDays, capacity);
+                enrollmentGrades = Arrays.copyOf(enrollmentGrades, capacity);
+            }
+
+            enrollmentStudentIds[enrollmentCount] = enrollment.getStudentId();
+            enrollmentCourseIds[enrollmentCount] = enrollment.getCourseId();
+            enrollmentDays[enrollmentCount] = enrollment.getDate() == null ? NO_DAY : (int) enrollment.getDate().toEpochDay();
+            enrollmentGrades[enrollmentCount] = enrollment.getGrade() == null ? NO_GRADE : enrollment.getGrade().byteValue();
+            enrollmentCount++;
+        }
+
+        AnalyticsDataset build() {
+            return new AnalyticsDataset(
+                    Arrays.copyOf(studentIds, studentCount),
+                    Arrays.copyOf(studentMajors, studentCount),
+                    Arrays.copyOf(studentGpas, studentCount),
+                    majors.toArray(new String[0]),
+                    departmentByCourseId,
+                    creditsByCourseId,
+                    departments.toArray(new String[0]),
+                    Arrays.copyOf(enrollmentStudentIds, enrollmentCount),
+                    Arrays.copyOf(enrollmentCourseIds, enrollmentCount),
+                    Arrays.copyOf(enrollmentDays, enrollmentCount),
+                    Arrays.copyOf(enrollmentGrades, enrollmentCount)
+            );
+        }
+
+        private static int code(String value, Map<String, Integer> codes, List<String> values) {
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+    }
+}
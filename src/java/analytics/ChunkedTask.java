@@ -0,0 +1,55 @@
+package analytics;
+
+import java.util.concurrent.RecursiveTask;
+
+public abstract class ChunkedTask<A> extends RecursiveTask<A> {
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    private final int from;
+    private final int to;
+    private final int threshold;
+
+    protected ChunkedTask(int from, int to, int threshold) {
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+    }
+
+    protected abstract A newAccumulator();
+
+    protected abstract void accumulate(int from, int to, A accumulator);
+
+    protected abstract A merge(A left, A right);
+
+    protected abstract ChunkedTask<A> subtask(int from, int to);
+
+    public A computeSerially() {
+        A accumulator = newAccumulator();
+        accumulate(from, to, accumulator);
+
+        return accumulator;
+    }
+
+    protected int getThreshold() {
+        return threshold;
+    }
+
+    @Override
+    protected A compute() {
+        if (to - from <= threshold) return computeSerially();
+
+        int middle = (from + to) >>> 1;
+        ChunkedTask<A> left = subtask(from, middle);
+        ChunkedTask<A> right = subtask(middle, to);
+
+        left.fork();
+        A rightResult = right.compute();
+
+        return merge(left.join(), rightResult);
+    }
+
+    public static long[] add(long[] left, long[] right) {
+        for (int i = 0; i < left.length; i++) left[i] += right[i];
+        return left;
+    }
+}
@@ -0,0 +1,77 @@
+package benchmark;
+
+import analytics.AnalyticsDataset;
+import model.DateBucket;
+import service.AnalyticsService;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+public class AnalyticsBenchmark {
+    public static void main(String[] args) throws Exception {
+        AnalyticsDataset dataset = generate(
+                Integer.getInteger("bench.students", 500_000),
+                Integer.getInteger("bench.courses", 2_000),
+                Integer.getInteger("bench.enrollments", 5_000_000)
+        );
+
+        BenchmarkRunner runner = new BenchmarkRunner(Integer.getInteger("bench.warmup", 3), Integer.getInteger("bench.iterations", 10));
+        AnalyticsService serial = AnalyticsService.serial(dataset);
+        AnalyticsService parallel = new AnalyticsService(dataset);
+
+        System.out.println("Students: " + dataset.getStudentCount() + ", enrollments: " + dataset.getEnrollmentCount() + ", cores: " + Runtime.getRuntime().availableProcessors());
+        BenchmarkRunner.printHeader();
+
+        runner.run("gpaDistributionByMajor (serial)", () -> serial.gpaDistributionByMajor(8));
+        runner.run("gpaDistributionByMajor (parallel)", () -> parallel.gpaDistributionByMajor(8));
+        runner.run("gradeHistogramsByDepartment (serial)", serial::gradeHistogramsByDepartment);
+        runner.run("gradeHistogramsByDepartment (parallel)", parallel::gradeHistogramsByDepartment);
+        runner.run("enrollmentCountsByDate WEEK (serial)", () -> serial.enrollmentCountsByDate(DateBucket.WEEK));
+        runner.run("enrollmentCountsByDate WEEK (parallel)", () -> parallel.enrollmentCountsByDate(DateBucket.WEEK));
+        runner.run("studentIdsByDepartment (serial)", () -> serial.studentIdsByDepartment(BenchmarkData.MAJORS[0]));
+        runner.run("studentIdsByDepartment (parallel)", () -> parallel.studentIdsByDepartment(BenchmarkData.MAJORS[0]));
+    }
+
+    static AnalyticsDataset generate(int studentCount, int courseCount, int enrollmentCount) {
+        Random random = new Random(42);
+        String[] names = BenchmarkData.MAJORS;
+
+        int[] studentIds = new int[studentCount];
+        int[] studentMajors = new int[studentCount];
+        double[] studentGpas = new double[studentCount];
+
+        for (int i = 0; i < studentCount; i++) {
+            studentIds[i] = i + 1;
+            studentMajors[i] = random.nextInt(names.length);
+            studentGpas[i] = random.nextInt(401) / 100.0;
+        }
+
+        int[] departmentByCourseId = new int[courseCount + 1];
+        int[] creditsByCourseId = new int[courseCount + 1];
+        departmentByCourseId[0] = -1;
+
+        for (int i = 1; i <= courseCount; i++) {
+            departmentByCourseId[i] = random.nextInt(names.length);
+            creditsByCourseId[i] = 1 + random.nextInt(6);
+        }
+
+        int[] enrollmentStudentIds = new int[enrollmentCount];
+        int[] enrollmentCourseIds = new int[enrollmentCount];
+        int[] enrollmentDays = new int[enrollmentCount];
+        byte[] enrollmentGrades = new byte[enrollmentCount];
+        int firstDay = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+
+        for (int i = 0; i < enrollmentCount; i++) {
+            enrollmentStudentIds[i] = 1 + random.nextInt(studentCount);
+            enrollmentCourseIds[i] = 1 + random.nextInt(courseCount);
+            enrollmentDays[i] = firstDay + random.nextInt(2_000);
+            enrollmentGrades[i] = (byte) random.nextInt(101);
+        }
+
+        return new AnalyticsDataset(
+                studentIds, studentMajors, studentGpas, names.clone(),
+                departmentByCourseId, creditsByCourseId, names.clone(),
+                enrollmentStudentIds, enrollmentCourseIds, enrollmentDays, enrollmentGrades
+        );
+    }
+}
@@ -0,0 +1,96 @@
+package benchmark;
+
+import model.Course;
+import model.Enrollment;
+import model.Student;
+import repository.CourseRepository;
+import repository.EnrollmentRepository;
+import repository.StudentRepository;
+import utils.SqlUtils;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class BenchmarkData {
+    public static final String[] MAJORS = {"Computer Science", "Mathematics", "Physics", "Biology", "Chemistry", "History", "Literature", "Engineering"};
+
+    private final int studentCount;
+    private final int courseCount;
+    private final int enrollmentCount;
+    private final Random random = new Random(42);
+
+    private List<Student> students;
+    private List<Course> courses;
+
+    public BenchmarkData() {
+        this(Integer.getInteger("bench.students", 10_000), Integer.getInteger("bench.courses", 200), Integer.getInteger("bench.enrollments", 100_000));
+    }
+
+    public BenchmarkData(int studentCount, int courseCount, int enrollmentCount) {
+        if (studentCount < 1 || courseCount < 1) throw new IllegalArgumentException("Student and course counts must be positive.");
+        if (enrollmentCount > (long) studentCount * courseCount) throw new IllegalArgumentException("Too many enrollments for the given students and courses.");
+
+        this.studentCount = studentCount;
+        this.courseCount = courseCount;
+        this.enrollmentCount = enrollmentCount;
+    }
+
+    public void seed() throws SQLException {
+        SqlUtils.truncateTables("student", "course", "enrollment");
+
+        students = buildStudents(studentCount);
+        courses = buildCourses(courseCount);
+
+        new StudentRepository().copy(students);
+        new CourseRepository().copy(courses);
+        new EnrollmentRepository().copy(buildEnrollments(enrollmentCount));
+        new CourseRepository().resyncSeats();
+
+        System.out.println("Seeded " + studentCount + " students, " + courseCount + " courses and " + enrollmentCount + " enrollments.");
+    }
+
+    public int randomStudentId() {
+        return students.get(random.nextInt(students.size())).getId();
+    }
+
+    public int randomCourseId() {
+        return courses.get(random.nextInt(courses.size())).getId();
+    }
+
+    public static List<Student> buildStudents(int size) {
+        List<Student> students = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            students.add(new Student("Student " + i, MAJORS[i % MAJORS.length], 1995 + i % 10, (i % 401) / 100.0));
+        }
+
+        return students;
+    }
+
+    public static List<Course> buildCourses(int size) {
+        List<Course> courses = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            courses.add(new Course("Course " + i, MAJORS[i % MAJORS.length], 1 + i % 6));
+        }
+
+        return courses;
+    }
+
+    private List<Enrollment> buildEnrollments(int size) {
+        List<Enrollment> enrollments = new ArrayList<>(size);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+
+        for (int i = 0; i < size; i++) {
+            Student student = students.get(i % students.size());
+            Course course = courses.get((i % students.size() + i / students.size()) % courses.size());
+
+            enrollments.add(new Enrollment(student.getId(), course.getId(), random.nextInt(101), start.plusDays(random.nextInt(2_000))));
+        }
+
+        return enrollments;
+    }
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+// Fallback for running the main() benchmarks straight from the IntelliJ module without Maven. Prefer the JMH
+// benchmarks in src/jmh (mvn -P jmh package && java -jar target/benchmarks.jar), which fork and use a real Blackhole.
+// This runs in the caller's JVM without forking and only guards against dead-code elimination by publishing each
+// result to a volatile field. Compare numbers from the same JVM and machine only.
+public class BenchmarkRunner {
+    private static volatile Object blackhole;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+
+    public BenchmarkRunner() {
+        this(Integer.getInteger("bench.warmup", 50), Integer.getInteger("bench.iterations", 200));
+    }
+
+    public BenchmarkRunner(int warmupIterations, int measurementIterations) {
+        if (warmupIterations < 0) throw new IllegalArgumentException("warmupIterations must be 0 or positive.");
+        if (measurementIterations < 1) throw new IllegalArgumentException("measurementIterations must be positive.");
+
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+    }
+
+    public static void printHeader() {
+        System.out.printf("%-45s %10s %12s %12s %12s %12s%n", "benchmark", "ops", "ops/s", "mean (us)", "p50 (us)", "p99 (us)");
+    }
+
+    public <T> void run(String name, Callable<T> operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) blackhole = operation.call();
+
+        long[] latencies = new long[measurementIterations];
+        long start = System.nanoTime();
+
+        for (int i = 0; i < measurementIterations; i++) {
+            long opStart = System.nanoTime();
+            blackhole = operation.call();
+            latencies[i] = System.nanoTime() - opStart;
+        }
+
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+
+        System.out.printf(
+                "%-45s %10d %12.1f %12.1f %12.1f %12.1f%n",
+                name,
+                measurementIterations,
+                measurementIterations / (elapsed / 1e9),
+                elapsed / 1e3 / measurementIterations,
+                percentile(latencies, 0.50) / 1e3,
+                percentile(latencies, 0.99) / 1e3
+        );
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
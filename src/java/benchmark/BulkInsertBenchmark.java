@@ -0,0 +1,39 @@
+package benchmark;
+
+import repository.StudentRepository;
+import utils.SqlUtils;
+
+import java.sql.SQLException;
+
+public class BulkInsertBenchmark {
+    public static void main(String[] args) throws SQLException {
+        int[] sizes = args.length == 0 ? new int[] {10_000, 100_000, 1_000_000} : parseSizes(args);
+        StudentRepository studentRepository = new StudentRepository();
+
+        System.out.printf("%-10s %15s %15s %10s%n", "rows", "batch (ms)", "copy (ms)", "speedup");
+
+        for (int size: sizes) {
+            SqlUtils.truncateTables("student", "course", "enrollment");
+            long start = System.nanoTime();
+            studentRepository.create(BenchmarkData.buildStudents(size));
+            long batchMillis = (System.nanoTime() - start) / 1_000_000;
+
+            SqlUtils.truncateTables("student", "course", "enrollment");
+            start = System.nanoTime();
+            studentRepository.copy(BenchmarkData.buildStudents(size));
+            long copyMillis = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.printf("%-10d %15d %15d %9.1fx%n", size, batchMillis, copyMillis, (double) batchMillis / Math.max(copyMillis, 1));
+        }
+
+        SqlUtils.truncateTables("student", "course", "enrollment");
+    }
+
+    private static int[] parseSizes(String[] args) {
+        int[] sizes = new int[args.length];
+
+        for (int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i].replace("_", ""));
+
+        return sizes;
+    }
+}
@@ -0,0 +1,109 @@
+package benchmark;
+
+import cache.NoOpCache;
+import config.DBConnection;
+import config.UnitOfWork;
+import model.Student;
+import repository.StudentRepository;
+import service.StudentService;
+import utils.SqlUtils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+public class OptimisticLockingBenchmark {
+    private static final int HOT_ROWS = Integer.getInteger("bench.hotRows", 4);
+    private static final int THREADS = Math.min(Integer.getInteger("bench.threads", 16), DBConnection.getMaximumPoolSize());
+    private static final int OPS_PER_THREAD = Integer.getInteger("bench.opsPerThread", 200);
+
+    public static void main(String[] args) throws Exception {
+        StudentService studentService = new StudentService();
+        StudentRepository studentRepository = new StudentRepository();
+
+        System.out.printf("%d threads, %d ops per thread, %d hot rows%n", THREADS, OPS_PER_THREAD, HOT_ROWS);
+        System.out.printf("%-24s %10s %10s %12s %14s %10s %10s%n", "mode", "ops", "ms", "ops/s", "attempts/op", "failed", "versions");
+
+        LongAdder attempts = new LongAdder();
+
+        run("optimistic (CAS + retry)", attempts, studentId -> studentService.updateStudent(studentId, current -> {
+            attempts.increment();
+            return Map.of("gpa", nextGpa(current));
+        }));
+
+        run("pessimistic (FOR UPDATE)", attempts, studentId -> UnitOfWork.run(() -> {
+            attempts.increment();
+
+            try {
+                Student current = studentRepository.findByIdForUpdate(studentId).orElseThrow();
+                studentRepository.update(studentId, current.getVersion(), Map.of("gpa", nextGpa(current)));
+            } catch (SQLException e) {
+                throw new RuntimeException("Locked update failed.", e);
+            }
+        }));
+
+        SqlUtils.truncateTables("student", "course", "enrollment");
+    }
+
+    private static void run(String mode, LongAdder attempts, IntConsumer update) throws Exception {
+        SqlUtils.truncateTables("student", "course", "enrollment");
+
+        List<Student> students = BenchmarkData.buildStudents(HOT_ROWS);
+        new StudentRepository().create(students);
+
+        int[] studentIds = students.stream().mapToInt(Student::getId).toArray();
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        attempts.reset();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>(THREADS);
+        long start = System.nanoTime();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    try {
+                        update.accept(studentIds[ThreadLocalRandom.current().nextInt(studentIds.length)]);
+                        succeeded.increment();
+                    } catch (RuntimeException e) {
+                        failed.increment();
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> future: futures) future.get();
+
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        long versions = 0;
+        StudentRepository uncachedRepository = new StudentRepository(new NoOpCache<>());
+        for (int studentId: studentIds) versions += uncachedRepository.findById(studentId).orElseThrow().getVersion();
+
+        long ops = (long) THREADS * OPS_PER_THREAD;
+
+        System.out.printf(
+                "%-24s %10d %10d %12.1f %14.2f %10d %10s%n",
+                mode,
+                ops,
+                elapsed / 1_000_000,
+                ops / (elapsed / 1e9),
+                attempts.sum() / (double) ops,
+                failed.sum(),
+                versions == succeeded.sum() ? "ok" : "LOST " + (succeeded.sum() - versions)
+        );
+    }
+
+    private static double nextGpa(Student student) {
+        return Math.round((student.getGpa() + 0.01) % 4.0 * 100) / 100.0;
+    }
+}
@@ -0,0 +1,108 @@
+package benchmark;
+
+import cache.NoOpCache;
+import criteria.EnrollmentCriteria;
+import exception.CourseFullException;
+import model.Course;
+import model.Enrollment;
+import model.Student;
+import repository.CourseRepository;
+import repository.StudentRepository;
+import service.EnrollmentService;
+import utils.SqlUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+public class RegistrationStressBenchmark {
+    public static void main(String[] args) throws Exception {
+        int studentCount = Integer.getInteger("bench.students", 5_000);
+        int courseCount = Integer.getInteger("bench.courses", 10);
+        int capacity = Integer.getInteger("bench.capacity", 100);
+        int coursesPerStudent = Math.min(Integer.getInteger("bench.coursesPerStudent", 3), courseCount);
+
+        SqlUtils.truncateTables("student", "course", "enrollment");
+
+        List<Student> students = BenchmarkData.buildStudents(studentCount);
+        List<Course> courses = new ArrayList<>(courseCount);
+        for (int i = 0; i < courseCount; i++) courses.add(new Course("Popular Course " + i, BenchmarkData.MAJORS[i % BenchmarkData.MAJORS.length], 3, capacity));
+
+        new StudentRepository().copy(students);
+        new CourseRepository().copy(courses);
+
+        List<Enrollment> attempts = new ArrayList<>(studentCount * coursesPerStudent);
+        List<Course> shuffled = new ArrayList<>(courses);
+        Random random = new Random(42);
+
+        for (Student student: students) {
+            Collections.shuffle(shuffled, random);
+            for (int i = 0; i < coursesPerStudent; i++) attempts.add(new Enrollment(student.getId(), shuffled.get(i).getId(), 0, LocalDate.now()));
+        }
+
+        Collections.shuffle(attempts, random);
+
+        Map<Integer, Long> attemptsByCourse = attempts.stream().collect(Collectors.groupingBy(Enrollment::getCourseId, Collectors.counting()));
+        long expectedAccepted = attemptsByCourse.values().stream().mapToLong(count -> Math.min(count, capacity)).sum();
+
+        EnrollmentService enrollmentService = new EnrollmentService();
+        LongAdder accepted = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder failed = new LongAdder();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(attempts.size());
+
+        long start = System.nanoTime();
+
+        for (Enrollment attempt: attempts) {
+            futures.add(enrollmentService.registerEnrollmentAsync(List.of(attempt)).handle((result, error) -> {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+
+                if (cause == null) {
+                    accepted.increment();
+                } else if (cause instanceof CourseFullException) {
+                    rejected.increment();
+                } else {
+                    failed.increment();
+                }
+
+                return null;
+            }));
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).join();
+
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%d attempts for %d seats in %d courses%n", attempts.size(), (long) capacity * courseCount, courseCount);
+        System.out.printf("accepted: %d, full: %d, failed: %d%n", accepted.sum(), rejected.sum(), failed.sum());
+        System.out.printf("elapsed: %d ms, throughput: %.1f registrations/s%n", elapsed / 1_000_000, attempts.size() / (elapsed / 1e9));
+
+        CourseRepository uncachedCourseRepository = new CourseRepository(new NoOpCache<>());
+        boolean consistent = true;
+
+        for (Course course: courses) {
+            Course stored = uncachedCourseRepository.findById(course.getId()).orElseThrow();
+            long enrolled = enrollmentService.countEnrollments(EnrollmentCriteria.courseIdEquals(course.getId()));
+
+            if (enrolled > capacity || stored.getSeatsTaken() != enrolled) {
+                consistent = false;
+                System.out.printf("course %d: capacity %d, seats_taken %d, enrolled %d%n", course.getId(), capacity, stored.getSeatsTaken(), enrolled);
+            }
+        }
+
+        if (accepted.sum() != expectedAccepted || failed.sum() != 0) consistent = false;
+
+        System.out.println(consistent ? "OK: no course is oversubscribed and seat counters match enrollments." : "FAILED: seat accounting is inconsistent.");
+
+        SqlUtils.truncateTables("student", "course", "enrollment");
+
+        if (!consistent) System.exit(1);
+    }
+}
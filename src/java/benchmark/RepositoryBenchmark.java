@@ -0,0 +1,90 @@
+package benchmark;
+
+import cache.EntityCaches;
+import cache.NoOpCache;
+import criteria.CourseCriteria;
+import criteria.EnrollmentCriteria;
+import criteria.StudentCriteria;
+import model.Student;
+import repository.StudentRepository;
+import service.CourseService;
+import service.CourseStatsService;
+import service.EnrollmentService;
+import service.StudentService;
+import utils.BatchLoader;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class RepositoryBenchmark {
+    public static void main(String[] args) throws Exception {
+        BenchmarkData data = new BenchmarkData();
+        data.seed();
+
+        BenchmarkRunner runner = new BenchmarkRunner();
+        StudentRepository studentRepository = new StudentRepository();
+        StudentRepository uncachedStudentRepository = new StudentRepository(new NoOpCache<>());
+        StudentService studentService = new StudentService();
+        CourseService courseService = new CourseService();
+        EnrollmentService enrollmentService = new EnrollmentService();
+        CourseStatsService courseStatsService = CourseStatsService.getShared();
+
+        BenchmarkRunner.printHeader();
+
+        runner.run("StudentRepository.create (100 rows)", () -> {
+            studentRepository.create(BenchmarkData.buildStudents(100));
+            return null;
+        });
+        runner.run("StudentRepository.findById (cached)", () -> studentRepository.findById(data.randomStudentId()));
+        runner.run("StudentRepository.findById (uncached)", () -> uncachedStudentRepository.findById(data.randomStudentId()));
+        runner.run("StudentRepository.findAll", studentRepository::findAll);
+        runner.run("StudentRepository.findById x100 (uncached)", () -> {
+            for (int i = 0; i < 100; i++) uncachedStudentRepository.findById(data.randomStudentId());
+            return null;
+        });
+        runner.run("StudentRepository.findByIds 100 (uncached)", () -> {
+            List<Integer> ids = new ArrayList<>(100);
+            for (int i = 0; i < 100; i++) ids.add(data.randomStudentId());
+            return uncachedStudentRepository.findByIds(ids);
+        });
+        runner.run("StudentService.newStudentLoader x100", () -> {
+            BatchLoader<Integer, Student> loader = studentService.newStudentLoader();
+            List<CompletableFuture<Student>> futures = new ArrayList<>(100);
+            for (int i = 0; i < 100; i++) futures.add(loader.load(data.randomStudentId()));
+            loader.dispatch();
+            return CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).join();
+        });
+        runner.run("StudentRepository.update (read + CAS)", () -> {
+            Student student = studentRepository.findById(data.randomStudentId()).orElseThrow();
+            return studentRepository.update(student.getId(), student.getVersion(), Map.of("gpa", 3.0));
+        });
+
+        runner.run("StudentService.findAndFilterStudents (criteria)", () -> studentService.findAndFilterStudents(
+                StudentCriteria.gpaGreaterThan(3.5).and(StudentCriteria.majorEquals("Physics"))
+        ));
+        runner.run("StudentService.findAndFilterStudents (lambda)", () -> studentService.findAndFilterStudents(
+                s -> s.getGpa() > 3.5 && s.getMajor().equals("Physics")
+        ));
+        runner.run("StudentService.countStudents (criteria)", () -> studentService.countStudents(StudentCriteria.yearBefore(2000)));
+        runner.run("StudentService.countStudents (lambda)", () -> studentService.countStudents(s -> s.getYear() < 2000));
+
+        runner.run("EnrollmentService.getStudentIdsByDepartment", () -> enrollmentService.getStudentIdsByDepartment("Physics"));
+        runner.run("EnrollmentService.findStudentsByEnrollment (criteria)", () -> enrollmentService.findStudentsByEnrollment(
+                EnrollmentCriteria.courseIdEquals(data.randomCourseId()).and(EnrollmentCriteria.dateAfter(LocalDate.of(2022, 1, 1)))
+        ));
+        runner.run("EnrollmentService.findStudentsByEnrollment (lambda)", () -> {
+            int courseId = data.randomCourseId();
+            return enrollmentService.findStudentsByEnrollment(enrollment -> enrollment.getCourseId() == courseId);
+        });
+        runner.run("EnrollmentService.countEnrollments (criteria)", () -> enrollmentService.countEnrollments(EnrollmentCriteria.gradeAtLeast(90)));
+        runner.run("CourseStatsService.findSummariesWithAverageAbove", () -> courseStatsService.findSummariesWithAverageAbove(50));
+        runner.run("CourseService.countCourses (criteria)", () -> courseService.countCourses(CourseCriteria.departmentEquals("Physics")));
+
+        System.out.println();
+        System.out.println("Student cache:");
+        System.out.println(EntityCaches.students().stats());
+    }
+}
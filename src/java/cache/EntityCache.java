@@ -0,0 +1,17 @@
+package cache;
+
+public interface EntityCache<K, V> {
+    V get(K key);
+
+    void put(K key, V value);
+
+    long generation(K key);
+
+    void putIfUnchanged(K key, V value, long generation);
+
+    void invalidate(K key);
+
+    void invalidateAll();
+
+    CacheStats stats();
+}
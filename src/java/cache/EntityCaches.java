@@ -0,0 +1,34 @@
+package cache;
+
+import model.Course;
+import model.Enrollment;
+import model.Student;
+
+import java.time.Duration;
+
+public class EntityCaches {
+    private static final EntityCache<Integer, Student> students = new TransactionalCache<>(new LruCache<>(10_000, Duration.ofMinutes(10)));
+    private static final EntityCache<Integer, Course> courses = new TransactionalCache<>(new LruCache<>(2_000));
+    private static final EntityCache<Integer, Enrollment> enrollments = new TransactionalCache<>(new LruCache<>(50_000, Duration.ofMinutes(10)));
+
+    private EntityCaches() {
+    }
+
+    public static EntityCache<Integer, Student> students() {
+        return students;
+    }
+
+    public static EntityCache<Integer, Course> courses() {
+        return courses;
+    }
+
+    public static EntityCache<Integer, Enrollment> enrollments() {
+        return enrollments;
+    }
+
+    public static void invalidateAll() {
+        students.invalidateAll();
+        courses.invalidateAll();
+        enrollments.invalidateAll();
+    }
+}
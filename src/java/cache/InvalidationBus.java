@@ -0,0 +1,251 @@
+package cache;
+
+import config.DBConfig;
+import config.DBConnection;
+import metrics.LatencyHistogram;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class InvalidationBus {
+    public static final String CHANNEL = "cache_invalidation";
+    public static final String ALL_IDS = "*";
+    public static final String ALL_TABLES = "*";
+
+    private static final int IDS_PER_NOTIFICATION = 500;
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 1_000;
+
+    private static final String nodeId = UUID.randomUUID().toString();
+    private static final boolean enabled = DBConnection.getConfig().isInvalidationEnabled();
+    private static final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    private static final LatencyHistogram lag = new LatencyHistogram();
+    private static final AtomicLong published = new AtomicLong();
+    private static final AtomicLong received = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+    private static final AtomicLong reconnects = new AtomicLong();
+
+    private static Thread listenerThread;
+    private static volatile boolean running;
+
+    private InvalidationBus() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static String getNodeId() {
+        return nodeId;
+    }
+
+    public static void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    public static void publish(Connection conn, String table, int... ids) throws SQLException {
+        if (!enabled || ids.length == 0) return;
+
+        try (PreparedStatement ps = conn.prepareStatement("select pg_notify(?, ?)")) {
+            for (int from = 0; from < ids.length; from += IDS_PER_NOTIFICATION) {
+                StringBuilder payload = new StringBuilder(header(table));
+
+                for (int i = from; i < Math.min(from + IDS_PER_NOTIFICATION, ids.length); i++) {
+                    if (i > from) payload.append(',');
+                    payload.append(ids[i]);
+                }
+
+                notify(ps, payload.toString());
+            }
+        }
+    }
+
+    public static void publishAll(Connection conn, String table) throws SQLException {
+        if (!enabled) return;
+
+        try (PreparedStatement ps = conn.prepareStatement("select pg_notify(?, ?)")) {
+            notify(ps, header(table) + ALL_IDS);
+        }
+    }
+
+    public static synchronized void start() {
+        if (!enabled || running) return;
+
+        Duration coalesceWindow = DBConnection.getConfig().getInvalidationCoalesceWindow();
+
+        running = true;
+        listenerThread = new Thread(() -> listen(coalesceWindow), "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    public static synchronized void stop() {
+        running = false;
+
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    public static InvalidationStats stats() {
+        return new InvalidationStats(
+                published.get(),
+                received.get(),
+                evictions.get(),
+                reconnects.get(),
+                lag.percentileNanos(0.50) / 1e6,
+                lag.percentileNanos(0.99) / 1e6,
+                lag.getMaxNanos() / 1e6
+        );
+    }
+
+    private static String header(String table) {
+        return nodeId + "|" + System.currentTimeMillis() + "|" + table + "|";
+    }
+
+    private static void notify(PreparedStatement ps, String payload) throws SQLException {
+        ps.setString(1, CHANNEL);
+        ps.setString(2, payload);
+        ps.executeQuery().close();
+
+        published.incrementAndGet();
+    }
+
+    private static void listen(Duration coalesceWindow) {
+        DBConfig config = DBConnection.getConfig();
+
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(config.getUrl(), config.getUsername(), config.getPassword())) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("listen " + CHANNEL);
+                }
+
+                // Anything published while we were disconnected is lost, so start from a clean slate.
+                EntityCaches.invalidateAll();
+                for (Consumer<String> listener: listeners) listener.accept(ALL_TABLES);
+
+                poll(conn.unwrap(PGConnection.class), coalesceWindow);
+            } catch (SQLException e) {
+                if (!running) return;
+
+                reconnects.incrementAndGet();
+
+                try {
+                    TimeUnit.MILLISECONDS.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void poll(PGConnection conn, Duration coalesceWindow) throws SQLException {
+        Map<String, Set<Integer>> pendingIds = new HashMap<>();
+        List<Long> pendingSentMillis = new ArrayList<>();
+        long flushAt = 0;
+
+        while (running && !Thread.currentThread().isInterrupted()) {
+            int timeoutMs = pendingIds.isEmpty() ? POLL_TIMEOUT_MS : (int) Math.max(1, flushAt - System.currentTimeMillis());
+            PGNotification[] notifications = conn.getNotifications(timeoutMs);
+
+            if (notifications != null) {
+                for (PGNotification notification: notifications) {
+                    String[] parts = notification.getParameter().split("\\|", 4);
+                    if (parts.length < 4 || parts[0].equals(nodeId)) continue;
+
+                    received.incrementAndGet();
+
+                    try {
+                        long sentMillis = Long.parseLong(parts[1]);
+                        boolean wasEmpty = pendingIds.isEmpty();
+
+                        collect(pendingIds, parts[2], parts[3]);
+
+                        if (wasEmpty) flushAt = System.currentTimeMillis() + coalesceWindow.toMillis();
+                        pendingSentMillis.add(sentMillis);
+                    } catch (RuntimeException e) {
+                        System.err.println("Ignoring malformed cache invalidation '" + notification.getParameter() + "': " + e);
+                    }
+                }
+            }
+
+            if (!pendingIds.isEmpty() && System.currentTimeMillis() >= flushAt) {
+                apply(pendingIds);
+
+                long now = System.currentTimeMillis();
+                for (long sentMillis: pendingSentMillis) lag.record(TimeUnit.MILLISECONDS.toNanos(Math.max(0, now - sentMillis)));
+
+                pendingIds.clear();
+                pendingSentMillis.clear();
+            }
+        }
+    }
+
+    private static void collect(Map<String, Set<Integer>> pendingIds, String table, String ids) {
+        // A null set means every row of the table is invalidated.
+        if (pendingIds.containsKey(table) && pendingIds.get(table) == null) return;
+
+        if (ids.equals(ALL_IDS)) {
+            pendingIds.put(table, null);
+            return;
+        }
+
+        // Parse everything first so a malformed payload leaves nothing half-collected.
+        List<Integer> parsedIds = new ArrayList<>();
+        for (String id: ids.split(",")) parsedIds.add(Integer.parseInt(id));
+
+        pendingIds.computeIfAbsent(table, t -> new HashSet<>()).addAll(parsedIds);
+    }
+
+    private static void apply(Map<String, Set<Integer>> pendingIds) {
+        for (Map.Entry<String, Set<Integer>> entry: pendingIds.entrySet()) {
+            EntityCache<Integer, ?> cache = cacheFor(entry.getKey());
+            Set<Integer> ids = entry.getValue();
+
+            if (cache != null) {
+                if (ids == null) {
+                    cache.invalidateAll();
+                } else {
+                    for (Integer id: ids) cache.invalidate(id);
+                    evictions.addAndGet(ids.size());
+                }
+            }
+
+            for (Consumer<String> listener: listeners) {
+                try {
+                    listener.accept(entry.getKey());
+                } catch (RuntimeException e) {
+                    System.err.println("Cache invalidation listener failed for table '" + entry.getKey() + "': " + e);
+                }
+            }
+        }
+    }
+
+    private static EntityCache<Integer, ?> cacheFor(String table) {
+        return switch (table) {
+            case "student" -> EntityCaches.students();
+            case "course" -> EntityCaches.courses();
+            case "enrollment" -> EntityCaches.enrollments();
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package cache;
+
+public class InvalidationStats {
+    private final long published;
+    private final long received;
+    private final long evictions;
+    private final long reconnects;
+    private final double lagP50Millis;
+    private final double lagP99Millis;
+    private final double lagMaxMillis;
+
+    public InvalidationStats(long published, long received, long evictions, long reconnects, double lagP50Millis, double lagP99Millis, double lagMaxMillis) {
+        this.published = published;
+        this.received = received;
+        this.evictions = evictions;
+        this.reconnects = reconnects;
+        this.lagP50Millis = lagP50Millis;
+        this.lagP99Millis = lagP99Millis;
+        this.lagMaxMillis = lagMaxMillis;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getReconnects() {
+        return reconnects;
+    }
+
+    public double getLagP50Millis() {
+        return lagP50Millis;
+    }
+
+    public double getLagP99Millis() {
+        return lagP99Millis;
+    }
+
+    public double getLagMaxMillis() {
+        return lagMaxMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "Published: " + published + "\nReceived: " + received + "\nEvictions: " + evictions +
+                "\nReconnects: " + reconnects + "\nLag P50 (ms): " + lagP50Millis +
+                "\nLag P99 (ms): " + lagP99Millis + "\nLag Max (ms): " + lagMaxMillis;
+    }
+}
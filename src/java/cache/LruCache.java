@@ -0,0 +1,189 @@
+package cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class LruCache<K, V> implements EntityCache<K, V> {
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] segments;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LruCache(int maxSize) {
+        this(maxSize, Duration.ZERO);
+    }
+
+    public LruCache(int maxSize, Duration ttl) {
+        if (maxSize < SEGMENT_COUNT) throw new IllegalArgumentException("maxSize must be at least " + SEGMENT_COUNT + ".");
+        if (ttl == null || ttl.isNegative()) throw new IllegalArgumentException("ttl must be zero or positive.");
+
+        this.ttlNanos = ttl.toNanos();
+        this.segments = newSegmentArray();
+
+        for (int i = 0; i < SEGMENT_COUNT; i++) segments[i] = new Segment(maxSize / SEGMENT_COUNT);
+    }
+
+    @Override
+    public V get(K key) {
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+
+        try {
+            CacheEntry<V> entry = segment.entries.get(key);
+
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+
+            if (entry.isExpired(System.nanoTime())) {
+                segment.entries.remove(key);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+
+            hits.increment();
+            return entry.value;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+
+        try {
+            segment.entries.put(key, new CacheEntry<>(value, expiresAt()));
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public long generation(K key) {
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+
+        try {
+            return segment.generation;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public void putIfUnchanged(K key, V value, long expectedGeneration) {
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+
+        try {
+            if (segment.generation == expectedGeneration) {
+                segment.entries.put(key, new CacheEntry<>(value, expiresAt()));
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(K key) {
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+
+        try {
+            segment.generation++;
+            segment.entries.remove(key);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (Segment segment: segments) {
+            segment.lock.lock();
+
+            try {
+                segment.generation++;
+                segment.entries.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public CacheStats stats() {
+        long size = 0;
+
+        for (Segment segment: segments) {
+            segment.lock.lock();
+
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private Segment segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+
+        return segments[hash & (SEGMENT_COUNT - 1)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private Segment[] newSegmentArray() {
+        return (Segment[]) new LruCache<?, ?>.Segment[SEGMENT_COUNT];
+    }
+
+    private long expiresAt() {
+        return ttlNanos == 0 ? 0 : System.nanoTime() + ttlNanos;
+    }
+
+    private static class CacheEntry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt > 0;
+        }
+    }
+
+    private class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<K, CacheEntry<V>> entries;
+        private long generation;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(capacity, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                    if (size() <= capacity) return false;
+
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+    }
+}
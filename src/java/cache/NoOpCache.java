@@ -0,0 +1,39 @@
+package cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class NoOpCache<K, V> implements EntityCache<K, V> {
+    private final LongAdder misses = new LongAdder();
+
+    @Override
+    public V get(K key) {
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    public void put(K key, V value) {
+    }
+
+    @Override
+    public long generation(K key) {
+        return 0;
+    }
+
+    @Override
+    public void putIfUnchanged(K key, V value, long generation) {
+    }
+
+    @Override
+    public void invalidate(K key) {
+    }
+
+    @Override
+    public void invalidateAll() {
+    }
+
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(0, misses.sum(), 0, 0);
+    }
+}
@@ -0,0 +1,99 @@
+package cache;
+
+import config.UnitOfWork;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class TransactionalCache<K, V> implements EntityCache<K, V> {
+    private final EntityCache<K, V> delegate;
+    private final ThreadLocal<TouchedKeys<K>> touchedKeys = new ThreadLocal<>();
+
+    public TransactionalCache(EntityCache<K, V> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public V get(K key) {
+        return isTouched(key) ? null : delegate.get(key);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (!UnitOfWork.isActive()) {
+            delegate.put(key, value);
+            return;
+        }
+
+        touch(key);
+
+        long generation = delegate.generation(key);
+        UnitOfWork.afterCommit(() -> delegate.putIfUnchanged(key, value, generation));
+    }
+
+    @Override
+    public long generation(K key) {
+        return delegate.generation(key);
+    }
+
+    @Override
+    public void putIfUnchanged(K key, V value, long generation) {
+        // Rows this transaction wrote are uncommitted, so they must not reach the shared cache.
+        if (!isTouched(key)) delegate.putIfUnchanged(key, value, generation);
+    }
+
+    @Override
+    public void invalidate(K key) {
+        if (!UnitOfWork.isActive()) {
+            delegate.invalidate(key);
+            return;
+        }
+
+        touch(key);
+        UnitOfWork.afterCommit(() -> delegate.invalidate(key));
+    }
+
+    @Override
+    public void invalidateAll() {
+        if (!UnitOfWork.isActive()) {
+            delegate.invalidateAll();
+            return;
+        }
+
+        touched().all = true;
+        UnitOfWork.afterCommit(delegate::invalidateAll);
+    }
+
+    @Override
+    public CacheStats stats() {
+        return delegate.stats();
+    }
+
+    private boolean isTouched(K key) {
+        TouchedKeys<K> touched = touchedKeys.get();
+        return touched != null && (touched.all || touched.keys.contains(key));
+    }
+
+    private void touch(K key) {
+        touched().keys.add(key);
+    }
+
+    private TouchedKeys<K> touched() {
+        TouchedKeys<K> touched = touchedKeys.get();
+
+        if (touched == null) {
+            touched = new TouchedKeys<>();
+            touchedKeys.set(touched);
+
+            UnitOfWork.afterCommit(touchedKeys::remove);
+            UnitOfWork.afterRollback(touchedKeys::remove);
+        }
+
+        return touched;
+    }
+
+    private static class TouchedKeys<K> {
+        private final Set<K> keys = new HashSet<>();
+        private boolean all;
+    }
+}
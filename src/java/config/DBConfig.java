@@ -0,0 +1,178 @@
+package config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+public class DBConfig {
+    public static final String CONFIG_PROPERTY = "db.config";
+    public static final String CLASSPATH_RESOURCE = "db.properties";
+
+    private static final Map<String, String> ENV_OVERRIDES = Map.ofEntries(
+            Map.entry("db.url", "DB_URL"),
+            Map.entry("db.username", "DB_USERNAME"),
+            Map.entry("db.password", "DB_PASSWORD"),
+            Map.entry("db.pool.maxSize", "DB_POOL_MAX_SIZE"),
+            Map.entry("db.pool.minIdle", "DB_POOL_MIN_IDLE"),
+            Map.entry("db.pool.expectedConcurrency", "DB_POOL_EXPECTED_CONCURRENCY"),
+            Map.entry("db.pool.connectionTimeoutMs", "DB_CONNECTION_TIMEOUT_MS"),
+            Map.entry("db.pool.idleTimeoutMs", "DB_IDLE_TIMEOUT_MS"),
+            Map.entry("db.pool.maxLifetimeMs", "DB_MAX_LIFETIME_MS"),
+            Map.entry("db.pool.name", "DB_POOL_NAME"),
+            Map.entry("db.replicas.urls", "DB_REPLICA_URLS"),
+            Map.entry("db.replicas.username", "DB_REPLICA_USERNAME"),
+            Map.entry("db.replicas.password", "DB_REPLICA_PASSWORD"),
+            Map.entry("db.replicas.routing", "DB_REPLICA_ROUTING"),
+            Map.entry("db.invalidation.enabled", "DB_INVALIDATION_ENABLED"),
+            Map.entry("db.invalidation.coalesceMs", "DB_INVALIDATION_COALESCE_MS")
+    );
+
+    private final Properties properties;
+
+    private DBConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static DBConfig load() {
+        Properties properties = new Properties();
+        String configPath = System.getProperty(CONFIG_PROPERTY);
+
+        try {
+            if (configPath != null) {
+                try (InputStream in = Files.newInputStream(Path.of(configPath))) {
+                    properties.load(in);
+                }
+            } else {
+                try (InputStream in = DBConfig.class.getClassLoader().getResourceAsStream(CLASSPATH_RESOURCE)) {
+                    if (in != null) properties.load(in);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Loading database configuration failed.", e);
+        }
+
+        for (Map.Entry<String, String> override: ENV_OVERRIDES.entrySet()) {
+            String value = System.getenv(override.getValue());
+            if (value != null && !value.isBlank()) properties.setProperty(override.getKey(), value.trim());
+        }
+
+        return new DBConfig(properties);
+    }
+
+    public String getUrl() {
+        return required("db.url");
+    }
+
+    public String getUsername() {
+        return required("db.username");
+    }
+
+    public String getPassword() {
+        return properties.getProperty("db.password", "");
+    }
+
+    public String getPoolName() {
+        return properties.getProperty("db.pool.name", "student-course-management");
+    }
+
+    public int getMaximumPoolSize() {
+        int configured = intValue("db.pool.maxSize", 0);
+        if (configured > 0) return configured;
+
+        int coreBased = Runtime.getRuntime().availableProcessors() * 2 + 1;
+        int expectedConcurrency = intValue("db.pool.expectedConcurrency", 0);
+
+        if (expectedConcurrency > 0) return Math.max(2, Math.min(coreBased, expectedConcurrency));
+
+        return coreBased;
+    }
+
+    public int getMinimumIdle() {
+        int maximumPoolSize = getMaximumPoolSize();
+        return Math.min(maximumPoolSize, intValue("db.pool.minIdle", maximumPoolSize));
+    }
+
+    public long getConnectionTimeoutMs() {
+        return longValue("db.pool.connectionTimeoutMs", 10_000);
+    }
+
+    public long getIdleTimeoutMs() {
+        return longValue("db.pool.idleTimeoutMs", 60_000);
+    }
+
+    public long getMaxLifetimeMs() {
+        return longValue("db.pool.maxLifetimeMs", 1_800_000);
+    }
+
+    public List<String> getReplicaUrls() {
+        String value = properties.getProperty("db.replicas.urls", "");
+
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+
+    public String getReplicaUsername() {
+        String value = properties.getProperty("db.replicas.username");
+        return value == null || value.isBlank() ? getUsername() : value;
+    }
+
+    public String getReplicaPassword() {
+        String value = properties.getProperty("db.replicas.password");
+        return value == null || value.isBlank() ? getPassword() : value;
+    }
+
+    public ReplicaRouting getReplicaRouting() {
+        String value = properties.getProperty("db.replicas.routing", ReplicaRouting.ROUND_ROBIN.name());
+
+        try {
+            return ReplicaRouting.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Database configuration 'db.replicas.routing' must be one of ROUND_ROBIN, LEAST_PENDING.", e);
+        }
+    }
+
+    public boolean isInvalidationEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("db.invalidation.enabled", "false").trim());
+    }
+
+    public Duration getInvalidationCoalesceWindow() {
+        return Duration.ofMillis(longValue("db.invalidation.coalesceMs", 0));
+    }
+
+    public String getProperty(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    private String required(String key) {
+        String value = properties.getProperty(key);
+
+        if (value == null || value.isBlank())
+            throw new IllegalStateException("Database configuration '" + key + "' is missing.");
+
+        return value;
+    }
+
+    private int intValue(String key, int defaultValue) {
+        return (int) longValue(key, defaultValue);
+    }
+
+    private long longValue(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) return defaultValue;
+
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Database configuration '" + key + "' must be a number.", e);
+        }
+    }
+}
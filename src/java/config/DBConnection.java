@@ -2,26 +2,173 @@ package config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import metrics.LatencyHistogram;
+import metrics.PoolStats;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DBConnection {
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+    public static final int COPY_CHUNK_SIZE = 50_000;
+    public static final int UPSERT_CHUNK_SIZE = 10_000;
+
+    private static final LatencyHistogram acquireTimes = new LatencyHistogram();
+
+    private static final List<String> WARM_UP_QUERIES = List.of(
+            "select * from student where id = ?",
+            "select * from course where id = ?",
+            "select * from enrollment where id = ?",
+            "select * from enrollment where student_id = ? and course_id = ?"
+    );
+
+    private static final DBConfig dbConfig = DBConfig.load();
     private static final HikariDataSource dataSource;
+    private static final List<HikariDataSource> replicas = new ArrayList<>();
+    private static final ReplicaRouting replicaRouting = dbConfig.getReplicaRouting();
+    private static final AtomicInteger nextReplica = new AtomicInteger();
 
     static {
+        dataSource = createDataSource(dbConfig.getUrl(), dbConfig.getUsername(), dbConfig.getPassword(), dbConfig.getPoolName(), false);
+
+        List<String> replicaUrls = dbConfig.getReplicaUrls();
+
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicas.add(createDataSource(replicaUrls.get(i), dbConfig.getReplicaUsername(), dbConfig.getReplicaPassword(), dbConfig.getPoolName() + "-replica-" + (i + 1), true));
+        }
+    }
+
+    private static HikariDataSource createDataSource(String url, String username, String password, String poolName, boolean readOnly) {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl("jdbc:postgresql://localhost:5432/student_course_management");
-        config.setUsername("postgres");
-        config.setPassword("postgrace");
-        config.setMaximumPoolSize(10);
-        config.setConnectionTimeout(10000);
-        config.setIdleTimeout(60000);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(dbConfig.getMaximumPoolSize());
+        config.setMinimumIdle(dbConfig.getMinimumIdle());
+        config.setConnectionTimeout(dbConfig.getConnectionTimeoutMs());
+        config.setIdleTimeout(dbConfig.getIdleTimeoutMs());
+        config.setMaxLifetime(dbConfig.getMaxLifetimeMs());
+        config.setPoolName(poolName);
+        config.setReadOnly(readOnly);
+        config.setRegisterMbeans(true);
 
-        dataSource = new HikariDataSource(config);
+        return new HikariDataSource(config);
+    }
+
+    public static Duration warmUp() throws SQLException {
+        long start = System.nanoTime();
+
+        warmUp(dataSource);
+        for (HikariDataSource replica: replicas) warmUp(replica);
+
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private static void warmUp(HikariDataSource source) throws SQLException {
+        List<Connection> connections = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < source.getMinimumIdle(); i++) connections.add(source.getConnection());
+
+            for (Connection conn: connections) {
+                for (String sqlQuery: WARM_UP_QUERIES) {
+                    try (PreparedStatement ps = conn.prepareStatement(sqlQuery)) {
+                        int parameterCount = ps.getParameterMetaData().getParameterCount();
+                        for (int i = 1; i <= parameterCount; i++) ps.setInt(i, -1);
+
+                        ps.executeQuery().close();
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Warming up connection pool '" + source.getPoolName() + "' failed.", e);
+        } finally {
+            for (Connection conn: connections) conn.close();
+        }
+    }
+
+    public static DBConfig getConfig() {
+        return dbConfig;
     }
 
     public static Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+        Connection bound = UnitOfWork.currentConnection();
+        if (bound != null) return bound;
+
+        long start = System.nanoTime();
+
+        try {
+            return dataSource.getConnection();
+        } finally {
+            acquireTimes.record(System.nanoTime() - start);
+        }
+    }
+
+    // Replicas can lag the primary, so lookups that fill the entity caches use getConnection instead.
+    public static Connection getReadConnection() throws SQLException {
+        Connection bound = UnitOfWork.currentConnection();
+        if (bound != null || replicas.isEmpty()) return getConnection();
+
+        HikariDataSource replica = selectReplica();
+        long start = System.nanoTime();
+
+        try {
+            Connection conn = replica.getConnection();
+            acquireTimes.record(System.nanoTime() - start);
+
+            return conn;
+        } catch (SQLException e) {
+            return getConnection();
+        }
+    }
+
+    private static HikariDataSource selectReplica() {
+        if (replicaRouting == ReplicaRouting.LEAST_PENDING) {
+            HikariDataSource selected = replicas.get(0);
+            int selectedLoad = Integer.MAX_VALUE;
+
+            for (HikariDataSource replica: replicas) {
+                HikariPoolMXBean pool = replica.getHikariPoolMXBean();
+                int load = pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+
+                if (load < selectedLoad) {
+                    selected = replica;
+                    selectedLoad = load;
+                }
+            }
+
+            return selected;
+        }
+
+        return replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+    }
+
+    public static int getReplicaCount() {
+        return replicas.size();
+    }
+
+    public static int getMaximumPoolSize() {
+        return dataSource.getMaximumPoolSize();
+    }
+
+    public static PoolStats getPoolStats() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+
+        return new PoolStats(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                dataSource.getMaximumPoolSize(),
+                acquireTimes.percentileNanos(0.50) / 1e3,
+                acquireTimes.percentileNanos(0.99) / 1e3,
+                acquireTimes.getMaxNanos() / 1e3
+        );
     }
 }
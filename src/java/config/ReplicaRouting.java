@@ -0,0 +1,6 @@
+package config;
+
+public enum ReplicaRouting {
+    ROUND_ROBIN,
+    LEAST_PENDING
+}
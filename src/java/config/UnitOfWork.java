@@ -0,0 +1,173 @@
+package config;
+
+import utils.ValidationUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class UnitOfWork {
+    private static final ThreadLocal<Transaction> boundTransaction = new ThreadLocal<>();
+
+    public static void run(Runnable work) {
+        ValidationUtils.validateNotNull(work, "work");
+
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <T> T call(Supplier<T> work) {
+        ValidationUtils.validateNotNull(work, "work");
+
+        if (isActive()) return work.get();
+
+        Connection conn;
+
+        try {
+            conn = DBConnection.getConnection();
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new RuntimeException("Starting unit of work failed.", e);
+        }
+
+        Transaction transaction = new Transaction(conn);
+        boundTransaction.set(transaction);
+
+        boolean committed = false;
+
+        try {
+            T result = work.get();
+            conn.commit();
+            committed = true;
+
+            return result;
+        } catch (SQLException e) {
+            rollback(transaction, e);
+            throw new RuntimeException("Committing unit of work failed.", e);
+        } catch (RuntimeException | Error e) {
+            rollback(transaction, e);
+            throw e;
+        } finally {
+            boundTransaction.remove();
+
+            try {
+                release(conn);
+            } finally {
+                // Shared caches only see the changes once they are visible to other connections.
+                if (committed) runAll(transaction.afterCommit, null);
+            }
+        }
+    }
+
+    public static boolean isActive() {
+        return boundTransaction.get() != null;
+    }
+
+    public static void afterCommit(Runnable action) {
+        ValidationUtils.validateNotNull(action, "action");
+
+        Transaction transaction = boundTransaction.get();
+
+        if (transaction == null) {
+            action.run();
+        } else {
+            transaction.afterCommit.add(action);
+        }
+    }
+
+    public static void afterRollback(Runnable action) {
+        ValidationUtils.validateNotNull(action, "action");
+
+        Transaction transaction = boundTransaction.get();
+        if (transaction != null) transaction.afterRollback.add(action);
+    }
+
+    static Connection currentConnection() {
+        Transaction transaction = boundTransaction.get();
+        if (transaction == null) return null;
+
+        Connection conn = transaction.connection;
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (isTransactionControl(method.getName(), args)) return null;
+
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+        );
+    }
+
+    private static boolean isTransactionControl(String methodName, Object[] args) {
+        switch (methodName) {
+            case "close":
+            case "commit":
+            case "rollback":
+                return args == null;
+            case "setAutoCommit":
+            case "setReadOnly":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void rollback(Transaction transaction, Throwable cause) {
+        try {
+            transaction.connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+
+        runAll(transaction.afterRollback, cause);
+    }
+
+    private static void runAll(List<Runnable> actions, Throwable cause) {
+        RuntimeException failure = null;
+
+        for (Runnable action: actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                if (cause != null) {
+                    cause.addSuppressed(e);
+                } else if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) throw failure;
+    }
+
+    private static void release(Connection conn) {
+        try (conn) {
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            throw new RuntimeException("Releasing unit of work connection failed.", e);
+        }
+    }
+
+    private static class Transaction {
+        private final Connection connection;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private final List<Runnable> afterRollback = new ArrayList<>();
+
+        private Transaction(Connection connection) {
+            this.connection = connection;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package criteria;
+
+import utils.ValidationUtils;
+
+import java.util.List;
+import java.util.function.Function;
+
+class ColumnCriteria<T, V extends Comparable<? super V>> implements Criteria<T> {
+    private final String column;
+    private final Operator operator;
+    private final V value;
+    private final Function<T, V> getter;
+
+    ColumnCriteria(String column, Operator operator, V value, Function<T, V> getter) {
+        ValidationUtils.validateNotNull(value, column);
+
+        this.column = column;
+        this.operator = operator;
+        this.value = value;
+        this.getter = getter;
+    }
+
+    @Override
+    public boolean test(T entity) {
+        V actual = getter.apply(entity);
+        return actual != null && operator.matches(actual.compareTo(value));
+    }
+
+    @Override
+    public String toSql(String alias, List<Object> params) {
+        params.add(value);
+        return Criteria.column(alias, column) + " " + operator.getSymbol() + " ?";
+    }
+}
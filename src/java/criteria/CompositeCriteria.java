@@ -0,0 +1,30 @@
+package criteria;
+
+import utils.ValidationUtils;
+
+import java.util.List;
+
+class CompositeCriteria<T> implements Criteria<T> {
+    private final Criteria<T> left;
+    private final Criteria<T> right;
+    private final String operator;
+
+    CompositeCriteria(Criteria<T> left, Criteria<T> right, String operator) {
+        ValidationUtils.validateNotNull(right, "criteria");
+
+        this.left = left;
+        this.right = right;
+        this.operator = operator;
+    }
+
+    @Override
+    public boolean test(T entity) {
+        if (operator.equals("and")) return left.test(entity) && right.test(entity);
+        return left.test(entity) || right.test(entity);
+    }
+
+    @Override
+    public String toSql(String alias, List<Object> params) {
+        return "(" + left.toSql(alias, params) + " " + operator + " " + right.toSql(alias, params) + ")";
+    }
+}
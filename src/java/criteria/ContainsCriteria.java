@@ -0,0 +1,33 @@
+package criteria;
+
+import utils.SqlUtils;
+import utils.ValidationUtils;
+
+import java.util.List;
+import java.util.function.Function;
+
+class ContainsCriteria<T> implements Criteria<T> {
+    private final String column;
+    private final String text;
+    private final Function<T, String> getter;
+
+    ContainsCriteria(String column, String text, Function<T, String> getter) {
+        ValidationUtils.validateNotNull(text, column);
+
+        this.column = column;
+        this.text = text;
+        this.getter = getter;
+    }
+
+    @Override
+    public boolean test(T entity) {
+        String actual = getter.apply(entity);
+        return actual != null && actual.contains(text);
+    }
+
+    @Override
+    public String toSql(String alias, List<Object> params) {
+        params.add("%" + SqlUtils.escapeLike(text) + "%");
+        return Criteria.column(alias, column) + " like ? escape '\\'";
+    }
+}
@@ -0,0 +1,34 @@
+package criteria;
+
+import model.Course;
+
+import java.util.Collection;
+
+public class CourseCriteria {
+    private CourseCriteria() {
+    }
+
+    public static Criteria<Course> idIn(Collection<Integer> ids) {
+        return new InCriteria<>("id", ids, Course::getId);
+    }
+
+    public static Criteria<Course> titleContains(String text) {
+        return new ContainsCriteria<>("title", text, Course::getTitle);
+    }
+
+    public static Criteria<Course> departmentEquals(String department) {
+        return new ColumnCriteria<>("department", Operator.EQUALS, department, Course::getDepartment);
+    }
+
+    public static Criteria<Course> creditsEquals(int credits) {
+        return new ColumnCriteria<>("credits", Operator.EQUALS, credits, Course::getCredits);
+    }
+
+    public static Criteria<Course> creditsAtLeast(int credits) {
+        return new ColumnCriteria<>("credits", Operator.GREATER_OR_EQUAL, credits, Course::getCredits);
+    }
+
+    public static Criteria<Course> creditsAtMost(int credits) {
+        return new ColumnCriteria<>("credits", Operator.LESS_OR_EQUAL, credits, Course::getCredits);
+    }
+}
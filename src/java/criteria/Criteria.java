@@ -0,0 +1,29 @@
+package criteria;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+public interface Criteria<T> extends Predicate<T> {
+    String toSql(String alias, List<Object> params);
+
+    default String toSql(List<Object> params) {
+        return toSql(null, params);
+    }
+
+    default Criteria<T> and(Criteria<T> other) {
+        return new CompositeCriteria<>(this, other, "and");
+    }
+
+    default Criteria<T> or(Criteria<T> other) {
+        return new CompositeCriteria<>(this, other, "or");
+    }
+
+    @Override
+    default Criteria<T> negate() {
+        return new NegatedCriteria<>(this);
+    }
+
+    static String column(String alias, String column) {
+        return alias == null ? column : alias + "." + column;
+    }
+}
@@ -0,0 +1,52 @@
+package criteria;
+
+import model.Enrollment;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public class EnrollmentCriteria {
+    private EnrollmentCriteria() {
+    }
+
+    public static Criteria<Enrollment> idIn(Collection<Integer> ids) {
+        return new InCriteria<>("id", ids, Enrollment::getId);
+    }
+
+    public static Criteria<Enrollment> studentIdEquals(int studentId) {
+        return new ColumnCriteria<>("student_id", Operator.EQUALS, studentId, Enrollment::getStudentId);
+    }
+
+    public static Criteria<Enrollment> courseIdEquals(int courseId) {
+        return new ColumnCriteria<>("course_id", Operator.EQUALS, courseId, Enrollment::getCourseId);
+    }
+
+    public static Criteria<Enrollment> courseIdIn(Collection<Integer> courseIds) {
+        return new InCriteria<>("course_id", courseIds, Enrollment::getCourseId);
+    }
+
+    public static Criteria<Enrollment> dateAfter(LocalDate date) {
+        return new ColumnCriteria<>("enrollment_date", Operator.GREATER_THAN, date, Enrollment::getDate);
+    }
+
+    public static Criteria<Enrollment> dateBefore(LocalDate date) {
+        return new ColumnCriteria<>("enrollment_date", Operator.LESS_THAN, date, Enrollment::getDate);
+    }
+
+    public static Criteria<Enrollment> dateBetween(LocalDate from, LocalDate to) {
+        return new ColumnCriteria<Enrollment, LocalDate>("enrollment_date", Operator.GREATER_OR_EQUAL, from, Enrollment::getDate)
+                .and(new ColumnCriteria<>("enrollment_date", Operator.LESS_OR_EQUAL, to, Enrollment::getDate));
+    }
+
+    public static Criteria<Enrollment> gradeAtLeast(int grade) {
+        return new ColumnCriteria<>("grade", Operator.GREATER_OR_EQUAL, grade, Enrollment::getGrade);
+    }
+
+    public static Criteria<Enrollment> gradeAtMost(int grade) {
+        return new ColumnCriteria<>("grade", Operator.LESS_OR_EQUAL, grade, Enrollment::getGrade);
+    }
+
+    public static Criteria<Enrollment> gradeBetween(int min, int max) {
+        return gradeAtLeast(min).and(gradeAtMost(max));
+    }
+}
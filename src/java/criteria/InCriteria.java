@@ -0,0 +1,34 @@
+package criteria;
+
+import utils.ValidationUtils;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+class InCriteria<T> implements Criteria<T> {
+    private final String column;
+    private final Set<Integer> values;
+    private final Function<T, Integer> getter;
+
+    InCriteria(String column, Collection<Integer> values, Function<T, Integer> getter) {
+        ValidationUtils.validateNotNull(values, column);
+
+        this.column = column;
+        this.values = new HashSet<>(values);
+        this.getter = getter;
+    }
+
+    @Override
+    public boolean test(T entity) {
+        return values.contains(getter.apply(entity));
+    }
+
+    @Override
+    public String toSql(String alias, List<Object> params) {
+        params.add(values.toArray(new Integer[0]));
+        return Criteria.column(alias, column) + " = any(?)";
+    }
+}
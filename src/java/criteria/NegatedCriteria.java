@@ -0,0 +1,22 @@
+package criteria;
+
+import java.util.List;
+
+class NegatedCriteria<T> implements Criteria<T> {
+    private final Criteria<T> criteria;
+
+    NegatedCriteria(Criteria<T> criteria) {
+        this.criteria = criteria;
+    }
+
+    @Override
+    public boolean test(T entity) {
+        return !criteria.test(entity);
+    }
+
+    @Override
+    public String toSql(String alias, List<Object> params) {
+        // "is not true" keeps rows where the inner condition is unknown because of a NULL column, as test() does.
+        return "(" + criteria.toSql(alias, params) + ") is not true";
+    }
+}
@@ -0,0 +1,31 @@
+package criteria;
+
+public enum Operator {
+    EQUALS("="),
+    NOT_EQUALS("<>"),
+    GREATER_THAN(">"),
+    GREATER_OR_EQUAL(">="),
+    LESS_THAN("<"),
+    LESS_OR_EQUAL("<=");
+
+    private final String symbol;
+
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public boolean matches(int comparison) {
+        switch (this) {
+            case EQUALS: return comparison == 0;
+            case NOT_EQUALS: return comparison != 0;
+            case GREATER_THAN: return comparison > 0;
+            case GREATER_OR_EQUAL: return comparison >= 0;
+            case LESS_THAN: return comparison < 0;
+            default: return comparison <= 0;
+        }
+    }
+}
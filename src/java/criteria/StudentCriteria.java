@@ -0,0 +1,47 @@
+package criteria;
+
+import model.Student;
+
+import java.util.Collection;
+
+public class StudentCriteria {
+    private StudentCriteria() {
+    }
+
+    public static Criteria<Student> idIn(Collection<Integer> ids) {
+        return new InCriteria<>("id", ids, Student::getId);
+    }
+
+    public static Criteria<Student> nameContains(String text) {
+        return new ContainsCriteria<>("name", text, Student::getName);
+    }
+
+    public static Criteria<Student> majorEquals(String major) {
+        return new ColumnCriteria<>("major", Operator.EQUALS, major, Student::getMajor);
+    }
+
+    public static Criteria<Student> yearEquals(int year) {
+        return new ColumnCriteria<>("year", Operator.EQUALS, year, Student::getYear);
+    }
+
+    public static Criteria<Student> yearBefore(int year) {
+        return new ColumnCriteria<>("year", Operator.LESS_THAN, year, Student::getYear);
+    }
+
+    public static Criteria<Student> yearAfter(int year) {
+        return new ColumnCriteria<>("year", Operator.GREATER_THAN, year, Student::getYear);
+    }
+
+    public static Criteria<Student> gpaGreaterThan(double gpa) {
+        return new ColumnCriteria<>("gpa", Operator.GREATER_THAN, gpa, Student::getGpa);
+    }
+
+    public static Criteria<Student> gpaLessThan(double gpa) {
+        return new ColumnCriteria<>("gpa", Operator.LESS_THAN, gpa, Student::getGpa);
+    }
+
+    public static Criteria<Student> gpaBetween(double min, double max) {
+        return new ColumnCriteria<Student, Double>("gpa", Operator.GREATER_OR_EQUAL, min, Student::getGpa)
+                .and(new ColumnCriteria<>("gpa", Operator.LESS_OR_EQUAL, max, Student::getGpa));
+    }
+}
@@ -0,0 +1,7 @@
+package exception;
+
+public class CourseFullException extends RuntimeException {
+    public CourseFullException(int courseId) {
+        super("Course with ID '" + courseId + "' has no seats left.");
+    }
+}
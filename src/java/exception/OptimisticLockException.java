@@ -0,0 +1,7 @@
+package exception;
+
+public class OptimisticLockException extends RuntimeException {
+    public OptimisticLockException(String entity, int id, int expectedVersion) {
+        super(entity + " with ID '" + id + "' was modified concurrently (expected version " + expectedVersion + ").");
+    }
+}
@@ -0,0 +1,8 @@
+package interfaces;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,5 @@
+package interfaces;
+
+public interface ThrowingConsumer<T, E extends Exception> {
+    void accept(T t) throws E;
+}
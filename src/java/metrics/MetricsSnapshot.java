@@ -0,0 +1,28 @@
+package metrics;
+
+import java.time.Instant;
+import java.util.List;
+
+public class MetricsSnapshot {
+    private final Instant takenAt;
+    private final List<OperationStats> operations;
+    private final PoolStats pool;
+
+    public MetricsSnapshot(Instant takenAt, List<OperationStats> operations, PoolStats pool) {
+        this.takenAt = takenAt;
+        this.operations = operations;
+        this.pool = pool;
+    }
+
+    public Instant getTakenAt() {
+        return takenAt;
+    }
+
+    public List<OperationStats> getOperations() {
+        return operations;
+    }
+
+    public PoolStats getPool() {
+        return pool;
+    }
+}
@@ -0,0 +1,41 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+class OperationMetrics {
+    private final String operation;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    OperationMetrics(String operation) {
+        this.operation = operation;
+    }
+
+    void record(long nanos, long rowCount, boolean succeeded) {
+        latencies.record(nanos);
+        rows.add(rowCount);
+
+        if (!succeeded) errors.increment();
+    }
+
+    void reset() {
+        latencies.reset();
+        errors.reset();
+        rows.reset();
+    }
+
+    OperationStats toStats() {
+        return new OperationStats(
+                operation,
+                latencies.getCount(),
+                errors.sum(),
+                rows.sum(),
+                latencies.getMeanNanos() / 1e3,
+                latencies.percentileNanos(0.50) / 1e3,
+                latencies.percentileNanos(0.99) / 1e3,
+                latencies.percentileNanos(0.999) / 1e3,
+                latencies.getMaxNanos() / 1e3
+        );
+    }
+}
@@ -0,0 +1,68 @@
+package metrics;
+
+public class OperationStats {
+    private final String operation;
+    private final long calls;
+    private final long errors;
+    private final long rows;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double p999Micros;
+    private final double maxMicros;
+
+    public OperationStats(String operation, long calls, long errors, long rows, double meanMicros, double p50Micros, double p99Micros, double p999Micros, double maxMicros) {
+        this.operation = operation;
+        this.calls = calls;
+        this.errors = errors;
+        this.rows = rows;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.p999Micros = p999Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    public double getP999Micros() {
+        return p999Micros;
+    }
+
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "Operation: " + operation + "\nCalls: " + calls + "\nErrors: " + errors + "\nRows: " + rows +
+                "\nMean (us): " + meanMicros + "\nP50 (us): " + p50Micros + "\nP99 (us): " + p99Micros +
+                "\nP99.9 (us): " + p999Micros + "\nMax (us): " + maxMicros;
+    }
+}
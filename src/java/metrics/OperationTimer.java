@@ -0,0 +1,52 @@
+package metrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+public class OperationTimer implements AutoCloseable {
+    private final OperationMetrics metrics;
+    private final long start = System.nanoTime();
+
+    private long rows;
+    private boolean succeeded;
+    private boolean closed;
+
+    OperationTimer(OperationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public <T> T returning(T result) {
+        rows(rowsOf(result));
+        return result;
+    }
+
+    public void rows(long rows) {
+        this.rows = rows;
+        this.succeeded = true;
+    }
+
+    public void addRow() {
+        rows++;
+    }
+
+    public void succeed() {
+        succeeded = true;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+
+        closed = true;
+        metrics.record(System.nanoTime() - start, rows, succeeded);
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Optional<?> optional) return optional.map(OperationTimer::rowsOf).orElse(0L);
+        if (result instanceof Collection<?> collection) return collection.size();
+        if (result instanceof Map<?, ?> map) return map.size();
+
+        return result == null ? 0 : 1;
+    }
+}
@@ -0,0 +1,62 @@
+package metrics;
+
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int pending;
+    private final int maximumPoolSize;
+    private final double acquireP50Micros;
+    private final double acquireP99Micros;
+    private final double acquireMaxMicros;
+
+    public PoolStats(int active, int idle, int total, int pending, int maximumPoolSize, double acquireP50Micros, double acquireP99Micros, double acquireMaxMicros) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.pending = pending;
+        this.maximumPoolSize = maximumPoolSize;
+        this.acquireP50Micros = acquireP50Micros;
+        this.acquireP99Micros = acquireP99Micros;
+        this.acquireMaxMicros = acquireMaxMicros;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public double getAcquireP50Micros() {
+        return acquireP50Micros;
+    }
+
+    public double getAcquireP99Micros() {
+        return acquireP99Micros;
+    }
+
+    public double getAcquireMaxMicros() {
+        return acquireMaxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "Active: " + active + "\nIdle: " + idle + "\nTotal: " + total + "\nPending: " + pending +
+                "\nMaximum Pool Size: " + maximumPoolSize + "\nAcquire P50 (us): " + acquireP50Micros +
+                "\nAcquire P99 (us): " + acquireP99Micros + "\nAcquire Max (us): " + acquireMaxMicros;
+    }
+}
@@ -0,0 +1,75 @@
+package metrics;
+
+import config.DBConnection;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+public class RepositoryMetrics {
+    public static final String OBJECT_NAME = "metrics:type=RepositoryMetrics";
+
+    private static final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("Registering repository metrics MBean failed: " + e.getMessage());
+        }
+    }
+
+    public static OperationTimer start(String operation) {
+        return new OperationTimer(operations.computeIfAbsent(operation, OperationMetrics::new));
+    }
+
+    public static <T> Stream<T> track(OperationTimer timer, Stream<T> stream) {
+        return stream
+                .peek(row -> timer.addRow())
+                .onClose(() -> {
+                    timer.succeed();
+                    timer.close();
+                });
+    }
+
+    public static List<OperationStats> operationStats() {
+        List<OperationStats> stats = new ArrayList<>(operations.size());
+
+        operations.values().forEach(metrics -> stats.add(metrics.toStats()));
+        stats.sort(Comparator.comparing(OperationStats::getOperation));
+
+        return stats;
+    }
+
+    public static MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(Instant.now(), operationStats(), DBConnection.getPoolStats());
+    }
+
+    public static void reset() {
+        operations.values().forEach(OperationMetrics::reset);
+    }
+
+    private static class Bean implements RepositoryMetricsMXBean {
+        @Override
+        public List<OperationStats> getOperations() {
+            return operationStats();
+        }
+
+        @Override
+        public PoolStats getPool() {
+            return DBConnection.getPoolStats();
+        }
+
+        @Override
+        public void reset() {
+            RepositoryMetrics.reset();
+        }
+    }
+}
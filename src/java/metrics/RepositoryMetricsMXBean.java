@@ -0,0 +1,11 @@
+package metrics;
+
+import java.util.List;
+
+public interface RepositoryMetricsMXBean {
+    List<OperationStats> getOperations();
+
+    PoolStats getPool();
+
+    void reset();
+}
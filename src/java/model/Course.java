@@ -8,21 +8,27 @@ public class Course {
     private String title;
     private String department;
     private int credits;
+    private Integer capacity;
+    private int seatsTaken;
 
+    private int version;
     private boolean isIdSet;
 
     public Course(String title, String department, int credits) {
         ValidationUtils.validateString(title, "title");
         ValidationUtils.validateString(department, "department");
-        validateCredits(credits);
+        ValidationUtils.validateCredits(credits);
 
         this.title = title;
         this.department = department;
         this.credits = credits;
     }
 
-    private void validateCredits(int credits) {
-        if (credits < 1 || credits > 6) throw new IllegalArgumentException("Credits must be between 1 and 6.");
+    public Course(String title, String department, int credits, Integer capacity) {
+        this(title, department, credits);
+
+        ValidationUtils.validateCapacity(capacity);
+        this.capacity = capacity;
     }
 
     public int getId() {
@@ -41,6 +47,22 @@ public class Course {
         return credits;
     }
 
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public int getSeatsTaken() {
+        return seatsTaken;
+    }
+
+    public boolean hasCapacity() {
+        return capacity != null;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
     public boolean isIdSet() {
         return isIdSet;
     }
@@ -54,6 +76,11 @@ public class Course {
         this.isIdSet = true;
     }
 
+    public void setVersion(int version) {
+        if (version < 0) throw new IllegalArgumentException("version must be 0 or positive.");
+        this.version = version;
+    }
+
     public void setTitle(String title) {
         ValidationUtils.validateString(title, "title");
         this.title = title;
@@ -65,12 +92,31 @@ public class Course {
     }
 
     public void setCredits(int credits) {
-        validateCredits(credits);
+        ValidationUtils.validateCredits(credits);
         this.credits = credits;
     }
 
+    public void setCapacity(Integer capacity) {
+        ValidationUtils.validateCapacity(capacity);
+        this.capacity = capacity;
+    }
+
+    public void setSeatsTaken(int seatsTaken) {
+        if (seatsTaken < 0) throw new IllegalArgumentException("seatsTaken must be 0 or positive.");
+        this.seatsTaken = seatsTaken;
+    }
+
+    public Course copy() {
+        Course copy = new Course(title, department, credits, capacity);
+        copy.setSeatsTaken(seatsTaken);
+        copy.setVersion(version);
+        if (isIdSet) copy.setId(id);
+
+        return copy;
+    }
+
     @Override
     public String toString() {
-        return "ID: " + id + "\nTitle: " + title + "\nDepartment: " + department + "\nCredits: ";
+        return "ID: " + id + "\nTitle: " + title + "\nDepartment: " + department + "\nCredits: " + credits + "\nSeats: " + seatsTaken + "/" + (capacity == null ? "unlimited" : capacity);
     }
 }
@@ -0,0 +1,48 @@
+package model;
+
+public class CourseGradeSummary {
+    private final int courseId;
+    private final long count;
+    private final double average;
+    private final double standardDeviation;
+    private final int min;
+    private final int max;
+
+    public CourseGradeSummary(int courseId, long count, double average, double standardDeviation, int min, int max) {
+        this.courseId = courseId;
+        this.count = count;
+        this.average = average;
+        this.standardDeviation = standardDeviation;
+        this.min = min;
+        this.max = max;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "Course: " + courseId + "\nCount: " + count + "\nAverage: " + average + "\nStandard Deviation: " + standardDeviation + "\nMin: " + min + "\nMax: " + max;
+    }
+}
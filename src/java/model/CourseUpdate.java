@@ -0,0 +1,39 @@
+package model;
+
+import utils.ValidationUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CourseUpdate {
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    public CourseUpdate title(String title) {
+        ValidationUtils.validateString(title, "title");
+        values.put("title", title);
+        return this;
+    }
+
+    public CourseUpdate department(String department) {
+        ValidationUtils.validateString(department, "department");
+        values.put("department", department);
+        return this;
+    }
+
+    public CourseUpdate credits(int credits) {
+        ValidationUtils.validateCredits(credits);
+        values.put("credits", credits);
+        return this;
+    }
+
+    public CourseUpdate capacity(int capacity) {
+        ValidationUtils.validateCapacity(capacity);
+        values.put("capacity", capacity);
+        return this;
+    }
+
+    public Map<String, Object> toMap() {
+        return Collections.unmodifiableMap(values);
+    }
+}
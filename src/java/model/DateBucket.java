@@ -0,0 +1,8 @@
+package model;
+
+public enum DateBucket {
+    DAY,
+    WEEK,
+    MONTH,
+    YEAR
+}
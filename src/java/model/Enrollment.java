@@ -10,14 +10,16 @@ public class Enrollment {
     private int studentId;
     private int courseId;
     private LocalDate date;
-    private int grade;
+    // Null until the enrollment is graded.
+    private Integer grade;
 
+    private int version;
     private boolean isIdSet;
 
-    public Enrollment(int studentId, int courseId, int grade) {
+    public Enrollment(int studentId, int courseId, Integer grade) {
         ValidationUtils.validateId(studentId);
         ValidationUtils.validateId(courseId);
-        ValidationUtils.validateGrade(grade);
+        if (grade != null) ValidationUtils.validateGrade(grade);
 
         this.studentId = studentId;
         this.courseId = courseId;
@@ -25,10 +27,10 @@ public class Enrollment {
         this.date = LocalDate.now();
     }
 
-    public Enrollment(int studentId, int courseId, int grade, LocalDate date) {
+    public Enrollment(int studentId, int courseId, Integer grade, LocalDate date) {
         ValidationUtils.validateId(studentId);
         ValidationUtils.validateId(courseId);
-        ValidationUtils.validateGrade(grade);
+        if (grade != null) ValidationUtils.validateGrade(grade);
 
         this.studentId = studentId;
         this.courseId = courseId;
@@ -52,10 +54,14 @@ public class Enrollment {
         return date;
     }
 
-    public int getGrade() {
+    public Integer getGrade() {
         return grade;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
     public boolean isIdSet() {
         return isIdSet;
     }
@@ -69,6 +75,11 @@ public class Enrollment {
         this.isIdSet = true;
     }
 
+    public void setVersion(int version) {
+        if (version < 0) throw new IllegalArgumentException("version must be 0 or positive.");
+        this.version = version;
+    }
+
     public void setStudentId(int studentId) {
         ValidationUtils.validateId(studentId);
         this.studentId = studentId;
@@ -83,11 +94,19 @@ public class Enrollment {
         this.date = date;
     }
 
-    public void setGrade(int grade) {
-        ValidationUtils.validateGrade(grade);
+    public void setGrade(Integer grade) {
+        if (grade != null) ValidationUtils.validateGrade(grade);
         this.grade = grade;
     }
 
+    public Enrollment copy() {
+        Enrollment copy = new Enrollment(studentId, courseId, grade, date);
+        copy.setVersion(version);
+        if (isIdSet) copy.setId(id);
+
+        return copy;
+    }
+
     @Override
     public String toString() {
         return "ID: " + id + "\nStudent: " + studentId + "\nCourse: " + courseId + "\nDate: " + date + "\nGrade: " + grade;
@@ -0,0 +1,27 @@
+package model;
+
+import utils.ValidationUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class EnrollmentUpdate {
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    public EnrollmentUpdate courseId(int courseId) {
+        ValidationUtils.validateId(courseId);
+        values.put("course_id", courseId);
+        return this;
+    }
+
+    public EnrollmentUpdate grade(int grade) {
+        ValidationUtils.validateGrade(grade);
+        values.put("grade", grade);
+        return this;
+    }
+
+    public Map<String, Object> toMap() {
+        return Collections.unmodifiableMap(values);
+    }
+}
@@ -0,0 +1,45 @@
+package model;
+
+import java.util.Arrays;
+
+public class GpaDistribution {
+    private final String major;
+    private final double bucketWidth;
+    private final long[] bucketCounts;
+    private final long count;
+    private final double average;
+
+    public GpaDistribution(String major, double bucketWidth, long[] bucketCounts, long count, double average) {
+        this.major = major;
+        this.bucketWidth = bucketWidth;
+        this.bucketCounts = bucketCounts;
+        this.count = count;
+        this.average = average;
+    }
+
+    public String getMajor() {
+        return major;
+    }
+
+    public double getBucketWidth() {
+        return bucketWidth;
+    }
+
+    public long[] getBucketCounts() {
+        return bucketCounts.clone();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    @Override
+    public String toString() {
+        return "Major: " + major + "\nCount: " + count + "\nAverage GPA: " + average +
+                "\nBucket Width: " + bucketWidth + "\nBuckets: " + Arrays.toString(bucketCounts);
+    }
+}
@@ -12,6 +12,7 @@ public class Student {
     private int year;
     private double gpa;
 
+    private int version;
     private boolean isIdSet = false;
 
     public Student(String name, String major, int year, double gpa) {
@@ -52,6 +53,10 @@ public class Student {
         return gpa;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
     public boolean isIdSet() {
         return isIdSet;
     }
@@ -65,6 +70,11 @@ public class Student {
         this.isIdSet = true;
     }
 
+    public void setVersion(int version) {
+        if (version < 0) throw new IllegalArgumentException("version must be 0 or positive.");
+        this.version = version;
+    }
+
     public void setName(String name) {
         ValidationUtils.validateString(name, 3, "name");
         this.name = name;
@@ -85,6 +95,14 @@ public class Student {
         this.gpa = gpa;
     }
 
+    public Student copy() {
+        Student copy = new Student(name, major, year, gpa);
+        copy.setVersion(version);
+        if (isIdSet) copy.setId(id);
+
+        return copy;
+    }
+
     @Override
     public String toString() {
         return "ID: " + id + "\nName: " + name + "\nMajor: " + major + "\nYear: " + year + "\nGPA: " + gpa;
@@ -0,0 +1,33 @@
+package model;
+
+import utils.ValidationUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class StudentUpdate {
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    public StudentUpdate name(String name) {
+        ValidationUtils.validateString(name, 3, "name");
+        values.put("name", name);
+        return this;
+    }
+
+    public StudentUpdate major(String major) {
+        ValidationUtils.validateString(major, "major");
+        values.put("major", major);
+        return this;
+    }
+
+    public StudentUpdate gpa(double gpa) {
+        ValidationUtils.validateGpa(gpa);
+        values.put("gpa", gpa);
+        return this;
+    }
+
+    public Map<String, Object> toMap() {
+        return Collections.unmodifiableMap(values);
+    }
+}
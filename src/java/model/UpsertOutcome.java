@@ -0,0 +1,7 @@
+package model;
+
+public enum UpsertOutcome {
+    INSERTED,
+    UPDATED,
+    SKIPPED
+}
@@ -0,0 +1,33 @@
+package report;
+
+import utils.ValidationUtils;
+
+import java.util.function.Function;
+
+public class ReportColumn<T> {
+    private final String name;
+    private final int width;
+    private final Function<T, Object> getter;
+
+    public ReportColumn(String name, int width, Function<T, Object> getter) {
+        ValidationUtils.validateString(name, "name");
+        ValidationUtils.validateNotNull(getter, "getter");
+        if (width < 1) throw new IllegalArgumentException("width must be positive.");
+
+        this.name = name;
+        this.width = width;
+        this.getter = getter;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public Object valueOf(T row) {
+        return getter.apply(row);
+    }
+}
@@ -0,0 +1,47 @@
+package report;
+
+import model.Course;
+import model.Enrollment;
+import model.Student;
+
+import java.util.List;
+
+public class ReportColumns {
+    private static final List<ReportColumn<Student>> students = List.of(
+            new ReportColumn<>("id", 8, Student::getId),
+            new ReportColumn<>("name", 24, Student::getName),
+            new ReportColumn<>("major", 20, Student::getMajor),
+            new ReportColumn<>("year", 6, Student::getYear),
+            new ReportColumn<>("gpa", 5, Student::getGpa)
+    );
+
+    private static final List<ReportColumn<Course>> courses = List.of(
+            new ReportColumn<>("id", 8, Course::getId),
+            new ReportColumn<>("title", 28, Course::getTitle),
+            new ReportColumn<>("department", 20, Course::getDepartment),
+            new ReportColumn<>("credits", 7, Course::getCredits)
+    );
+
+    private static final List<ReportColumn<Enrollment>> enrollments = List.of(
+            new ReportColumn<>("id", 8, Enrollment::getId),
+            new ReportColumn<>("student_id", 10, Enrollment::getStudentId),
+            new ReportColumn<>("course_id", 9, Enrollment::getCourseId),
+            new ReportColumn<>("date", 10, Enrollment::getDate),
+            new ReportColumn<>("grade", 5, Enrollment::getGrade)
+    );
+
+    private ReportColumns() {
+    }
+
+    public static List<ReportColumn<Student>> students() {
+        return students;
+    }
+
+    public static List<ReportColumn<Course>> courses() {
+        return courses;
+    }
+
+    public static List<ReportColumn<Enrollment>> enrollments() {
+        return enrollments;
+    }
+}
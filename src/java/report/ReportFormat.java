@@ -0,0 +1,7 @@
+package report;
+
+public enum ReportFormat {
+    TABLE,
+    CSV,
+    JSON_LINES
+}
@@ -0,0 +1,261 @@
+package report;
+
+import utils.ValidationUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ReportWriter<T> implements AutoCloseable {
+    public static final int BUFFER_SIZE = 256 * 1024;
+    public static final int FLUSH_EVERY_ROWS = 10_000;
+    public static final int PAGE_SIZE = 50;
+
+    private final Writer out;
+    private final boolean closeOut;
+    private final ReportFormat format;
+    private final List<ReportColumn<T>> columns;
+    private final String title;
+
+    private long rowCount;
+    private boolean headerWritten;
+
+    public ReportWriter(Writer out, boolean closeOut, ReportFormat format, List<ReportColumn<T>> columns, String title) {
+        ValidationUtils.validateNotNull(out, "out");
+        ValidationUtils.validateNotNull(format, "format");
+        ValidationUtils.validateCollection(columns, "columns");
+
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, BUFFER_SIZE);
+        this.closeOut = closeOut;
+        this.format = format;
+        this.columns = columns;
+        this.title = title;
+    }
+
+    public static <T> ReportWriter<T> toStdout(ReportFormat format, List<ReportColumn<T>> columns, String title) {
+        Writer stdout = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+        return new ReportWriter<>(new BufferedWriter(stdout, BUFFER_SIZE), false, format, columns, title);
+    }
+
+    public static <T> ReportWriter<T> toFile(Path path, ReportFormat format, List<ReportColumn<T>> columns, String title) throws IOException {
+        return new ReportWriter<>(Files.newBufferedWriter(path, StandardCharsets.UTF_8), true, format, columns, title);
+    }
+
+    public void writeRow(T row) {
+        try {
+            if (!headerWritten) {
+                writeHeader();
+                headerWritten = true;
+            } else if (format == ReportFormat.TABLE && rowCount % PAGE_SIZE == 0) {
+                out.write('\n');
+                writeTableHeader();
+            }
+
+            switch (format) {
+                case TABLE -> writeTableRow(row);
+                case CSV -> writeCsvRow(row);
+                case JSON_LINES -> writeJsonRow(row);
+            }
+
+            if (++rowCount % FLUSH_EVERY_ROWS == 0) out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Writing report row failed.", e);
+        }
+    }
+
+    public long writeAll(Stream<T> rows) {
+        ValidationUtils.validateNotNull(rows, "rows");
+
+        rows.forEachOrdered(this::writeRow);
+        return rowCount;
+    }
+
+    public long writeAll(Iterator<T> rows) {
+        ValidationUtils.validateNotNull(rows, "rows");
+
+        while (rows.hasNext()) writeRow(rows.next());
+        return rowCount;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!headerWritten) writeHeader();
+            if (format == ReportFormat.TABLE) writeTableFooter();
+
+            if (closeOut) {
+                out.close();
+            } else {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Closing report failed.", e);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        switch (format) {
+            case TABLE -> {
+                if (title != null) {
+                    out.write("--- ");
+                    out.write(title);
+                    out.write(" ---\n");
+                }
+
+                writeTableHeader();
+            }
+            case CSV -> {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) out.write(',');
+                    writeCsvValue(columns.get(i).getName());
+                }
+
+                out.write('\n');
+            }
+            case JSON_LINES -> {
+            }
+        }
+    }
+
+    private void writeTableHeader() throws IOException {
+        writeDivider();
+
+        for (ReportColumn<T> column: columns) {
+            out.write("| ");
+            writePadded(column.getName(), column.getWidth());
+            out.write(' ');
+        }
+
+        out.write("|\n");
+        writeDivider();
+    }
+
+    private void writeTableRow(T row) throws IOException {
+        for (ReportColumn<T> column: columns) {
+            out.write("| ");
+            writePadded(String.valueOf(column.valueOf(row)), column.getWidth());
+            out.write(' ');
+        }
+
+        out.write("|\n");
+    }
+
+    private void writeTableFooter() throws IOException {
+        if (rowCount > 0) writeDivider();
+
+        out.write(Long.toString(rowCount));
+        out.write(rowCount == 1 ? " row\n" : " rows\n");
+    }
+
+    private void writeDivider() throws IOException {
+        for (ReportColumn<T> column: columns) {
+            out.write('+');
+            for (int i = 0; i < column.getWidth() + 2; i++) out.write('-');
+        }
+
+        out.write("+\n");
+    }
+
+    private void writePadded(String value, int width) throws IOException {
+        if (value.length() > width) {
+            out.write(value, 0, width - 1);
+            out.write('~');
+            return;
+        }
+
+        out.write(value);
+        for (int i = value.length(); i < width; i++) out.write(' ');
+    }
+
+    private void writeCsvRow(T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) out.write(',');
+
+            Object value = columns.get(i).valueOf(row);
+            if (value != null) writeCsvValue(value.toString());
+        }
+
+        out.write('\n');
+    }
+
+    private void writeCsvValue(String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+
+        out.write('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+
+        out.write('"');
+    }
+
+    private void writeJsonRow(T row) throws IOException {
+        out.write('{');
+
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) out.write(',');
+
+            ReportColumn<T> column = columns.get(i);
+            writeJsonString(column.getName());
+            out.write(':');
+
+            Object value = column.valueOf(row);
+
+            // JSON has no NaN or Infinity literals.
+            if (value == null || value instanceof Double d && !Double.isFinite(d) || value instanceof Float f && !Float.isFinite(f)) {
+                out.write("null");
+            } else if (value instanceof Number || value instanceof Boolean) {
+                out.write(value.toString());
+            } else {
+                writeJsonString(value.toString());
+            }
+        }
+
+        out.write("}\n");
+    }
+
+    private void writeJsonString(String value) throws IOException {
+        out.write('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+
+        out.write('"');
+    }
+}
@@ -1,24 +1,52 @@
 package repository;
 
+import cache.EntityCache;
+import cache.EntityCaches;
+import cache.InvalidationBus;
 import config.DBConnection;
+import criteria.Criteria;
 import exception.NoCoursesFoundException;
 import exception.CourseAlreadyExistsException;
 import exception.CourseNotFoundException;
+import metrics.OperationTimer;
+import metrics.RepositoryMetrics;
 import model.Course;
 import model.Student;
+import utils.CopyUtils;
+import utils.SqlUtils;
 import utils.ValidationUtils;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 public class CourseRepository {
+    public static final List<String> UPDATABLE_COLUMNS = List.of("title", "department", "credits", "capacity");
+
+    private static final PartialUpdateStatements updateStatements = new PartialUpdateStatements("course", UPDATABLE_COLUMNS);
+
+    private final EntityCache<Integer, Course> cache;
+
+    public CourseRepository() {
+        this(EntityCaches.courses());
+    }
+
+    public CourseRepository(EntityCache<Integer, Course> cache) {
+        this.cache = cache;
+    }
+
     public void create(List<Course> courses) throws SQLException {
-        String sqlQuery = "insert into course (title, department, credits) values (?, ?, ?)";
+        String sqlQuery = "insert into course (title, department, credits, capacity) values (?, ?, ?, ?)";
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.create");
                 Connection conn = DBConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery, Statement.RETURN_GENERATED_KEYS)
         ) {
@@ -26,6 +54,7 @@ public class CourseRepository {
                 ps.setString(1, course.getTitle());
                 ps.setString(2, course.getDepartment());
                 ps.setInt(3, course.getCredits());
+                ps.setObject(4, course.getCapacity(), Types.INTEGER);
                 ps.addBatch();
             };
 
@@ -37,15 +66,44 @@ public class CourseRepository {
             while (rs.next()) {
                 courses.get(i++).setId(rs.getInt(1));
             }
+
+            for (Course course: courses) cache.put(course.getId(), course.copy());
+
+            InvalidationBus.publish(conn, "course", courses.stream().mapToInt(Course::getId).toArray());
+
+            timer.rows(courses.size());
         } catch (SQLException e) {
             throw new SQLException("Creating courses in database failed!", e);
         }
     }
 
+    public void copy(List<Course> courses) throws SQLException {
+        try (OperationTimer timer = RepositoryMetrics.start("CourseRepository.copy")) {
+            int[] ids = CopyUtils.copyWithGeneratedIds("course", "title, department, credits, capacity", courses, course -> new Object[] { course.getTitle(), course.getDepartment(), course.getCredits(), course.getCapacity() });
+
+            for (int i = 0; i < ids.length; i++) courses.get(i).setId(ids[i]);
+
+            if (InvalidationBus.isEnabled()) {
+                try (Connection conn = DBConnection.getConnection()) {
+                    InvalidationBus.publishAll(conn, "course");
+                }
+            }
+
+            timer.rows(ids.length);
+        } catch (SQLException e) {
+            throw new SQLException("Copying courses into database failed!", e);
+        }
+    }
+
     public Optional<Course> findById(int courseId) throws SQLException {
+        Course cached = cache.get(courseId);
+        if (cached != null) return Optional.of(cached.copy());
+
+        long generation = cache.generation(courseId);
         String sqlQuery = "select * from course where id = ?";
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.findById");
                 Connection conn = DBConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery)
         ) {
@@ -54,80 +112,290 @@ public class CourseRepository {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                Course course = new Course(
-                        rs.getString("title"),
-                        rs.getString("department"),
-                        rs.getInt("credits")
-                );
+                Course course = mapCourse(rs);
+                cache.putIfUnchanged(courseId, course.copy(), generation);
 
-                course.setId(rs.getInt("id"));
-
-                return Optional.of(course);
+                return timer.returning(Optional.of(course));
             } else {
-                return Optional.empty();
+                return timer.returning(Optional.empty());
             }
         } catch (SQLException e) {
             throw new SQLException("Finding course by id in database failed.", e);
         }
     }
 
-    public Optional<List<Course>> findAll() throws SQLException {
-        String sqlQuery = "select * from course";
+    // Skips the cache so read-modify-write sees the version it is about to compare against.
+    public Optional<Course> findLatestById(int courseId) throws SQLException {
+        String sqlQuery = "select * from course where id = ?";
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.findLatestById");
                 Connection conn = DBConnection.getConnection();
-                Statement stmt = conn.createStatement()
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
         ) {
-            ResultSet rs = stmt.executeQuery(sqlQuery);
-            List<Course> coursesList = new ArrayList<>();
+            ps.setInt(1, courseId);
+
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) return timer.returning(Optional.empty());
+
+            return timer.returning(Optional.of(mapCourse(rs)));
+        } catch (SQLException e) {
+            throw new SQLException("Finding latest course by id in database failed.", e);
+        }
+    }
+
+    public List<Course> findByIds(Collection<Integer> ids) throws SQLException {
+        List<Course> coursesList = new ArrayList<>(ids.size());
+        Map<Integer, Long> missingGenerations = new LinkedHashMap<>();
+
+        for (Integer id: new LinkedHashSet<>(ids)) {
+            Course cached = cache.get(id);
+
+            if (cached != null) {
+                coursesList.add(cached.copy());
+            } else {
+                missingGenerations.put(id, cache.generation(id));
+            }
+        }
+
+        if (missingGenerations.isEmpty()) return coursesList;
+
+        String sqlQuery = "select * from course where id = any(?)";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.findByIds");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setArray(1, conn.createArrayOf("integer", missingGenerations.keySet().toArray(new Integer[0])));
+
+            ResultSet rs = ps.executeQuery();
+            int rows = 0;
 
             while (rs.next()) {
-                Course course = new Course(
-                        rs.getString("title"),
-                        rs.getString("department"),
-                        rs.getInt("credits")
-                );
+                Course course = mapCourse(rs);
+                cache.putIfUnchanged(course.getId(), course.copy(), missingGenerations.get(course.getId()));
 
-                course.setId(rs.getInt("id"));
                 coursesList.add(course);
+                rows++;
             }
 
-            if (coursesList.isEmpty()) return Optional.empty();
+            timer.rows(rows);
+            return coursesList;
+        } catch (SQLException e) {
+            throw new SQLException("Finding courses by ids in database failed.", e);
+        }
+    }
+
+    public Optional<List<Course>> findAll() throws SQLException {
+        String sqlQuery = "select * from course";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.findAll");
+                Connection conn = DBConnection.getReadConnection();
+                Statement stmt = conn.createStatement()
+        ) {
+            ResultSet rs = stmt.executeQuery(sqlQuery);
+            List<Course> coursesList = new ArrayList<>();
+
+            while (rs.next()) coursesList.add(mapCourse(rs));
 
-            return Optional.of(coursesList);
+            if (coursesList.isEmpty()) return timer.returning(Optional.empty());
+
+            return timer.returning(Optional.of(coursesList));
         } catch (SQLException e) {
             throw new SQLException("Finding all courses in database failed.", e);
         }
     }
 
-    public void update(int courseId, Map<String, Object> updateMap) throws SQLException {
-        String sqlQuery = "update course set ";
-        int updateCount = 0;
+    public Stream<Course> streamAll() throws SQLException {
+        return streamAll(DBConnection.DEFAULT_FETCH_SIZE);
+    }
+
+    public Stream<Course> streamAll(int fetchSize) throws SQLException {
+        OperationTimer timer = RepositoryMetrics.start("CourseRepository.streamAll");
+
+        try {
+            return RepositoryMetrics.track(timer, SqlUtils.stream("select * from course", List.of(), fetchSize, this::mapCourse));
+        } catch (SQLException e) {
+            timer.close();
+            throw new SQLException("Streaming all courses from database failed.", e);
+        }
+    }
+
+    public Optional<List<Course>> findAll(Criteria<Course> criteria) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sqlQuery = "select * from course where " + criteria.toSql(params);
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.findAllByCriteria");
+                Connection conn = DBConnection.getReadConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            SqlUtils.setParameters(ps, params);
+
+            ResultSet rs = ps.executeQuery();
+            List<Course> coursesList = new ArrayList<>();
+
+            while (rs.next()) coursesList.add(mapCourse(rs));
+
+            if (coursesList.isEmpty()) return timer.returning(Optional.empty());
+
+            return timer.returning(Optional.of(coursesList));
+        } catch (SQLException e) {
+            throw new SQLException("Finding courses by criteria in database failed.", e);
+        }
+    }
+
+    public long count(Criteria<Course> criteria) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sqlQuery = "select count(*) from course where " + criteria.toSql(params);
 
-        for (String key: updateMap.keySet()) {
-            sqlQuery += key + " = ?";
-            updateCount++;
+        try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.count");
+                Connection conn = DBConnection.getReadConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            SqlUtils.setParameters(ps, params);
 
-            if (updateCount < updateMap.size()) sqlQuery += ", ";
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+
+            return timer.returning(rs.getLong(1));
+        } catch (SQLException e) {
+            throw new SQLException("Counting courses by criteria in database failed.", e);
         }
+    }
 
-        sqlQuery += "where id = ?";
+    public int update(int courseId, int expectedVersion, Map<String, Object> updateMap) throws SQLException {
+        try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.update");
+                Connection conn = DBConnection.getConnection()
+        ) {
+            updateStatements.update(conn, "Course", courseId, expectedVersion, updateMap, () -> new CourseNotFoundException(courseId));
+            timer.rows(1);
+
+            cache.invalidate(courseId);
+            InvalidationBus.publish(conn, "course", courseId);
+
+            return expectedVersion + 1;
+        } catch (SQLException e) {
+            throw new SQLException("Updating course in database failed!", e);
+        }
+    }
+
+    public int updateMany(int[] ids, Map<String, Object> updateMap) throws SQLException {
+        String sqlQuery = updateStatements.sqlForMany(updateMap);
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.updateMany");
                 Connection conn = DBConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery)
         ) {
-            int idIndex = 1;
+            int idIndex = updateStatements.bind(ps, updateMap);
+
+            ps.setArray(idIndex, conn.createArrayOf("integer", SqlUtils.toIntegerArray(ids)));
+
+            int rows = ps.executeUpdate();
+
+            for (int id: ids) cache.invalidate(id);
+            InvalidationBus.publish(conn, "course", ids);
 
-            for (String key: updateMap.keySet()) {
-                Object value = updateMap.get(key);
-                ps.setObject(idIndex++, value);
+            timer.rows(rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new SQLException("Updating courses in database failed!", e);
+        }
+    }
+
+    public List<Integer> reserveSeats(Map<Integer, Integer> seatsByCourseId) throws SQLException {
+        String sqlQuery = "update course set seats_taken = seats_taken + ? where id = ? and (capacity is null or seats_taken + ? <= capacity)";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.reserveSeats");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            List<Integer> courseIds = new ArrayList<>(new TreeMap<>(seatsByCourseId).keySet());
+
+            for (Integer courseId: courseIds) {
+                int seats = seatsByCourseId.get(courseId);
+
+                ps.setInt(1, seats);
+                ps.setInt(2, courseId);
+                ps.setInt(3, seats);
+                ps.addBatch();
+            }
+
+            int[] counts = ps.executeBatch();
+            List<Integer> rejectedIds = new ArrayList<>();
+            List<Integer> reservedIds = new ArrayList<>();
+
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    rejectedIds.add(courseIds.get(i));
+                } else {
+                    reservedIds.add(courseIds.get(i));
+                }
             }
 
-            ps.setInt(idIndex, courseId);
-            ps.executeUpdate();
+            for (Integer id: reservedIds) cache.invalidate(id);
+            InvalidationBus.publish(conn, "course", reservedIds.stream().mapToInt(Integer::intValue).toArray());
+
+            timer.rows(reservedIds.size());
+            return rejectedIds;
         } catch (SQLException e) {
-            throw new SQLException("Updating course in database failed!", e);
+            throw new SQLException("Reserving course seats in database failed!", e);
+        }
+    }
+
+    public void releaseSeats(Map<Integer, Integer> seatsByCourseId) throws SQLException {
+        // No clamp: releasing more seats than are taken is drift, and the seats_taken check constraint reports it.
+        String sqlQuery = "update course set seats_taken = seats_taken - ? where id = ?";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.releaseSeats");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            TreeMap<Integer, Integer> sortedSeats = new TreeMap<>(seatsByCourseId);
+
+            for (Map.Entry<Integer, Integer> entry: sortedSeats.entrySet()) {
+                ps.setInt(1, entry.getValue());
+                ps.setInt(2, entry.getKey());
+                ps.addBatch();
+            }
+
+            ps.executeBatch();
+
+            for (Integer id: sortedSeats.keySet()) cache.invalidate(id);
+            InvalidationBus.publish(conn, "course", sortedSeats.keySet().stream().mapToInt(Integer::intValue).toArray());
+
+            timer.rows(sortedSeats.size());
+        } catch (SQLException e) {
+            throw new SQLException("Releasing course seats in database failed!", e);
+        }
+    }
+
+    public int resyncSeats() throws SQLException {
+        String sqlQuery = "update course c set seats_taken = coalesce(e.taken, 0) " +
+                "from course c2 left join (select course_id, count(*) as taken from enrollment group by course_id) e on e.course_id = c2.id " +
+                "where c.id = c2.id and c.seats_taken is distinct from coalesce(e.taken, 0)";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.resyncSeats");
+                Connection conn = DBConnection.getConnection();
+                Statement stmt = conn.createStatement()
+        ) {
+            int rows = stmt.executeUpdate(sqlQuery);
+
+            cache.invalidateAll();
+            InvalidationBus.publishAll(conn, "course");
+
+            timer.rows(rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new SQLException("Resyncing course seats in database failed!", e);
         }
     }
 
@@ -135,13 +403,54 @@ public class CourseRepository {
         String sqlQuery = "delete from course where id = ?";
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.delete");
                 Connection conn = DBConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery)
         ) {
             ps.setInt(1, courseId);
-            ps.executeUpdate();
+            timer.rows(ps.executeUpdate());
+
+            cache.invalidate(courseId);
+            InvalidationBus.publish(conn, "course", courseId);
         } catch (SQLException e) {
             throw new SQLException("Deleting course from database failed!", e);
         }
     }
+
+    public int deleteByIds(int[] ids) throws SQLException {
+        String sqlQuery = "delete from course where id = any(?)";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("CourseRepository.deleteByIds");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setArray(1, conn.createArrayOf("integer", SqlUtils.toIntegerArray(ids)));
+
+            int rows = ps.executeUpdate();
+
+            for (int id: ids) cache.invalidate(id);
+            InvalidationBus.publish(conn, "course", ids);
+
+            timer.rows(rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new SQLException("Deleting courses from database failed!", e);
+        }
+    }
+
+    private Course mapCourse(ResultSet rs) throws SQLException {
+        Course course = new Course(
+                rs.getString("title"),
+                rs.getString("department"),
+                rs.getInt("credits"),
+                rs.getObject("capacity", Integer.class)
+        );
+
+        course.setSeatsTaken(rs.getInt("seats_taken"));
+        course.setId(rs.getInt("id"));
+        course.setVersion(rs.getInt("version"));
+
+        return course;
+    }
 }
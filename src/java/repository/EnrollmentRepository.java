@@ -1,28 +1,60 @@
 package repository;
 
+import cache.EntityCache;
+import cache.EntityCaches;
+import cache.InvalidationBus;
 import config.DBConnection;
+import criteria.Criteria;
+import exception.EnrollmentNotFoundException;
+import metrics.OperationTimer;
+import metrics.RepositoryMetrics;
 import model.Enrollment;
+import model.UpsertOutcome;
+import utils.CopyUtils;
+import utils.SqlUtils;
 import utils.ValidationUtils;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class EnrollmentRepository {
+    public static final List<String> UPDATABLE_COLUMNS = List.of("course_id", "grade");
+
+    private static final PartialUpdateStatements updateStatements = new PartialUpdateStatements("enrollment", UPDATABLE_COLUMNS);
+
+    private final EntityCache<Integer, Enrollment> cache;
+
+    public EnrollmentRepository() {
+        this(EntityCaches.enrollments());
+    }
+
+    public EnrollmentRepository(EntityCache<Integer, Enrollment> cache) {
+        this.cache = cache;
+    }
+
     public void create(List<Enrollment> enrollmentList) throws SQLException {
         String sqlQuery = "insert into enrollment (student_id, course_id, enrollment_date, grade) values (?, ?, ?, ?)";
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.create");
                 Connection conn = DBConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery, Statement.RETURN_GENERATED_KEYS)
         ) {
             for (Enrollment enrollment: enrollmentList) {
                 ps.setInt(1, enrollment.getStudentId());
                 ps.setInt(2, enrollment.getCourseId());
-                ps.setDate(3, Date.valueOf(enrollment.getDate()));
-                ps.setInt(4, enrollment.getGrade());
+                ps.setObject(3, sqlDate(enrollment.getDate()), Types.DATE);
+                ps.setObject(4, enrollment.getGrade(), Types.INTEGER);
                 ps.addBatch();
             };
 
@@ -32,16 +64,125 @@ public class EnrollmentRepository {
             int i = 0;
 
             while (rs.next()) enrollmentList.get(i++).setId(rs.getInt(1));
+
+            for (Enrollment enrollment: enrollmentList) cache.put(enrollment.getId(), enrollment.copy());
+
+            InvalidationBus.publish(conn, "enrollment", enrollmentList.stream().mapToInt(Enrollment::getId).toArray());
+
+            timer.rows(enrollmentList.size());
         } catch (SQLException e) {
             throw new SQLException("Creating enrollments in database failed!", e);
         }
     }
 
+    public void copy(List<Enrollment> enrollmentList) throws SQLException {
+        try (OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.copy")) {
+            int[] ids = CopyUtils.copyWithGeneratedIds("enrollment", "student_id, course_id, enrollment_date, grade", enrollmentList, enrollment -> new Object[] { enrollment.getStudentId(), enrollment.getCourseId(), enrollment.getDate(), enrollment.getGrade() });
+
+            for (int i = 0; i < ids.length; i++) enrollmentList.get(i).setId(ids[i]);
+
+            if (InvalidationBus.isEnabled()) {
+                try (Connection conn = DBConnection.getConnection()) {
+                    InvalidationBus.publishAll(conn, "enrollment");
+                }
+            }
+
+            timer.rows(ids.length);
+        } catch (SQLException e) {
+            throw new SQLException("Copying enrollments into database failed!", e);
+        }
+    }
+
+    public List<UpsertOutcome> upsert(List<Enrollment> enrollmentList, boolean updateExisting) throws SQLException {
+        String conflictAction = updateExisting
+                ? "do update set enrollment_date = excluded.enrollment_date, grade = excluded.grade, version = enrollment.version + 1 " +
+                  "where (enrollment.enrollment_date, enrollment.grade) is distinct from (excluded.enrollment_date, excluded.grade) "
+                : "do nothing ";
+
+        String sqlQuery = "insert into enrollment (student_id, course_id, enrollment_date, grade) " +
+                "select * from unnest(?::int[], ?::int[], ?::date[], ?::int[]) " +
+                "on conflict (student_id, course_id) " + conflictAction +
+                "returning id, student_id, course_id, (xmax = 0) as inserted";
+
+        List<UpsertOutcome> outcomes = new ArrayList<>(Collections.nCopies(enrollmentList.size(), UpsertOutcome.SKIPPED));
+        Map<Long, Integer> lastIndexByKey = new LinkedHashMap<>();
+
+        for (int i = 0; i < enrollmentList.size(); i++) {
+            Enrollment enrollment = enrollmentList.get(i);
+            lastIndexByKey.put(enrollmentKey(enrollment.getStudentId(), enrollment.getCourseId()), i);
+        }
+
+        List<Integer> indexes = new ArrayList<>(lastIndexByKey.values());
+        List<Integer> changedIds = new ArrayList<>();
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.upsert");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            conn.setAutoCommit(false);
+
+            try {
+                for (int from = 0; from < indexes.size(); from += DBConnection.UPSERT_CHUNK_SIZE) {
+                    List<Integer> chunk = indexes.subList(from, Math.min(from + DBConnection.UPSERT_CHUNK_SIZE, indexes.size()));
+                    Integer[] studentIds = new Integer[chunk.size()];
+                    Integer[] courseIds = new Integer[chunk.size()];
+                    Date[] dates = new Date[chunk.size()];
+                    Integer[] grades = new Integer[chunk.size()];
+
+                    for (int i = 0; i < chunk.size(); i++) {
+                        Enrollment enrollment = enrollmentList.get(chunk.get(i));
+                        studentIds[i] = enrollment.getStudentId();
+                        courseIds[i] = enrollment.getCourseId();
+                        dates[i] = sqlDate(enrollment.getDate());
+                        grades[i] = enrollment.getGrade();
+                    }
+
+                    ps.setArray(1, conn.createArrayOf("integer", studentIds));
+                    ps.setArray(2, conn.createArrayOf("integer", courseIds));
+                    ps.setArray(3, conn.createArrayOf("date", dates));
+                    ps.setArray(4, conn.createArrayOf("integer", grades));
+
+                    ResultSet rs = ps.executeQuery();
+
+                    while (rs.next()) {
+                        int index = lastIndexByKey.get(enrollmentKey(rs.getInt("student_id"), rs.getInt("course_id")));
+                        Enrollment enrollment = enrollmentList.get(index);
+                        boolean inserted = rs.getBoolean("inserted");
+
+                        if (!enrollment.isIdSet()) enrollment.setId(rs.getInt("id"));
+
+                        outcomes.set(index, inserted ? UpsertOutcome.INSERTED : UpsertOutcome.UPDATED);
+                        changedIds.add(rs.getInt("id"));
+                    }
+                }
+
+                InvalidationBus.publish(conn, "enrollment", changedIds.stream().mapToInt(Integer::intValue).toArray());
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            for (int i = 0; i < outcomes.size(); i++) {
+                if (outcomes.get(i) == UpsertOutcome.UPDATED) cache.invalidate(enrollmentList.get(i).getId());
+            }
+
+            return timer.returning(outcomes);
+        } catch (SQLException e) {
+            throw new SQLException("Upserting enrollments in database failed!", e);
+        }
+    }
+
     public Optional<Enrollment> find(int studentId, int courseId) throws SQLException {
         String sqlQuery = "select * from enrollment where student_id = ? and course_id = ?";
 
         try (
-                Connection conn = DBConnection.getConnection();
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.find");
+                Connection conn = DBConnection.getReadConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery)
                 ){
             ps.setInt(1, studentId);
@@ -50,18 +191,9 @@ public class EnrollmentRepository {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                Enrollment enrollment = new Enrollment(
-                        studentId,
-                        courseId,
-                        rs.getInt("grade"),
-                        rs.getDate("date").toLocalDate()
-                );
-
-                enrollment.setId(rs.getInt("id"));
-
-                return Optional.of(enrollment);
+                return timer.returning(Optional.of(mapEnrollment(rs)));
             } else {
-                return Optional.empty();
+                return timer.returning(Optional.empty());
             }
         } catch (SQLException e) {
             throw new SQLException("Finding enrollment by student id and course id in database failed.", e);
@@ -69,9 +201,14 @@ public class EnrollmentRepository {
     }
 
     public Optional<Enrollment> findById(int enrollmentId) throws SQLException {
+        Enrollment cached = cache.get(enrollmentId);
+        if (cached != null) return Optional.of(cached.copy());
+
+        long generation = cache.generation(enrollmentId);
         String sqlQuery = "select * from enrollment where id = ?";
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.findById");
                 Connection conn = DBConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery)
         ) {
@@ -80,82 +217,296 @@ public class EnrollmentRepository {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                Enrollment enrollment = new Enrollment(
-                        rs.getInt("student_id"),
-                        rs.getInt("course_id"),
-                        rs.getInt("grade"),
-                        rs.getDate("date").toLocalDate()
-                );
-
-                enrollment.setId(rs.getInt("id"));
+                Enrollment enrollment = mapEnrollment(rs);
+                cache.putIfUnchanged(enrollmentId, enrollment.copy(), generation);
 
-                return Optional.of(enrollment);
+                return timer.returning(Optional.of(enrollment));
             } else {
-                return Optional.empty();
+                return timer.returning(Optional.empty());
             }
         } catch (SQLException e) {
             throw new SQLException("Finding enrollment by id in database failed.", e);
         }
     }
 
+    // Skips the cache so read-modify-write sees the version it is about to compare against.
+    public Optional<Enrollment> findLatestById(int enrollmentId) throws SQLException {
+        String sqlQuery = "select * from enrollment where id = ?";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.findLatestById");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setInt(1, enrollmentId);
+
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) return timer.returning(Optional.empty());
+
+            return timer.returning(Optional.of(mapEnrollment(rs)));
+        } catch (SQLException e) {
+            throw new SQLException("Finding latest enrollment by id in database failed.", e);
+        }
+    }
+
+    // Locks the rows in id order so concurrent bulk updates cannot deadlock on each other.
+    public List<Enrollment> findByIdsForUpdate(int[] ids) throws SQLException {
+        String sqlQuery = "select * from enrollment where id = any(?) order by id for update";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.findByIdsForUpdate");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setArray(1, conn.createArrayOf("integer", SqlUtils.toIntegerArray(ids)));
+
+            ResultSet rs = ps.executeQuery();
+            List<Enrollment> enrollments = new ArrayList<>();
+
+            while (rs.next()) enrollments.add(mapEnrollment(rs));
+
+            timer.rows(enrollments.size());
+            return enrollments;
+        } catch (SQLException e) {
+            throw new SQLException("Locking enrollments by ids in database failed.", e);
+        }
+    }
+
+    public List<Enrollment> findByIds(Collection<Integer> ids) throws SQLException {
+        List<Enrollment> enrollmentsList = new ArrayList<>(ids.size());
+        Map<Integer, Long> missingGenerations = new LinkedHashMap<>();
+
+        for (Integer id: new LinkedHashSet<>(ids)) {
+            Enrollment cached = cache.get(id);
+
+            if (cached != null) {
+                enrollmentsList.add(cached.copy());
+            } else {
+                missingGenerations.put(id, cache.generation(id));
+            }
+        }
+
+        if (missingGenerations.isEmpty()) return enrollmentsList;
+
+        String sqlQuery = "select * from enrollment where id = any(?)";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.findByIds");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setArray(1, conn.createArrayOf("integer", missingGenerations.keySet().toArray(new Integer[0])));
+
+            ResultSet rs = ps.executeQuery();
+            int rows = 0;
+
+            while (rs.next()) {
+                Enrollment enrollment = mapEnrollment(rs);
+                cache.putIfUnchanged(enrollment.getId(), enrollment.copy(), missingGenerations.get(enrollment.getId()));
+
+                enrollmentsList.add(enrollment);
+                rows++;
+            }
+
+            timer.rows(rows);
+            return enrollmentsList;
+        } catch (SQLException e) {
+            throw new SQLException("Finding enrollments by ids in database failed.", e);
+        }
+    }
+
     public Optional<List<Enrollment>> findAll() throws SQLException {
         String sqlQuery = "select * from enrollment";
 
         try (
-                Connection conn = DBConnection.getConnection();
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.findAll");
+                Connection conn = DBConnection.getReadConnection();
                 Statement stmt = conn.createStatement()
         ) {
             ResultSet rs = stmt.executeQuery(sqlQuery);
             List<Enrollment> enrollmentsList = new ArrayList<>();
 
-            while (rs.next()) {
-                Enrollment enrollment = new Enrollment(
-                        rs.getInt("student_id"),
-                        rs.getInt("course_id"),
-                        rs.getInt("grade"),
-                        rs.getDate("enrollment_date").toLocalDate()
-                );
-
-                enrollment.setId(rs.getInt("id"));
-                enrollmentsList.add(enrollment);
-            }
+            while (rs.next()) enrollmentsList.add(mapEnrollment(rs));
 
-            if (enrollmentsList.isEmpty()) return Optional.empty();
+            if (enrollmentsList.isEmpty()) return timer.returning(Optional.empty());
 
-            return Optional.of(enrollmentsList);
+            return timer.returning(Optional.of(enrollmentsList));
         } catch (SQLException e) {
             throw new SQLException("Finding all enrollments in database failed.", e);
         }
     }
 
-    public void update(int enrollmentId, Map<String, Object> updateMap) throws SQLException {
-        String sqlQuery = "update enrollment set ";
-        int updateCount = 0;
+    public Stream<Enrollment> streamAll() throws SQLException {
+        return streamAll(DBConnection.DEFAULT_FETCH_SIZE);
+    }
+
+    public Stream<Enrollment> streamAll(int fetchSize) throws SQLException {
+        OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.streamAll");
+
+        try {
+            return RepositoryMetrics.track(timer, SqlUtils.stream("select * from enrollment", List.of(), fetchSize, EnrollmentRepository::mapEnrollment));
+        } catch (SQLException e) {
+            timer.close();
+            throw new SQLException("Streaming all enrollments from database failed.", e);
+        }
+    }
+
+    public Optional<List<Enrollment>> findAll(Criteria<Enrollment> criteria) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sqlQuery = "select * from enrollment where " + criteria.toSql(params);
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.findAllByCriteria");
+                Connection conn = DBConnection.getReadConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            SqlUtils.setParameters(ps, params);
+
+            ResultSet rs = ps.executeQuery();
+            List<Enrollment> enrollmentsList = new ArrayList<>();
+
+            while (rs.next()) enrollmentsList.add(mapEnrollment(rs));
+
+            if (enrollmentsList.isEmpty()) return timer.returning(Optional.empty());
+
+            return timer.returning(Optional.of(enrollmentsList));
+        } catch (SQLException e) {
+            throw new SQLException("Finding enrollments by criteria in database failed.", e);
+        }
+    }
+
+    public long count(Criteria<Enrollment> criteria) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sqlQuery = "select count(*) from enrollment where " + criteria.toSql(params);
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.count");
+                Connection conn = DBConnection.getReadConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            SqlUtils.setParameters(ps, params);
+
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+
+            return timer.returning(rs.getLong(1));
+        } catch (SQLException e) {
+            throw new SQLException("Counting enrollments by criteria in database failed.", e);
+        }
+    }
+
+    public List<Enrollment> findTopGradesPerCourse(int k) throws SQLException {
+        String sqlQuery = "select * from (" +
+                "select e.*, row_number() over (partition by course_id order by grade desc nulls last, id) as rn from enrollment e" +
+                ") ranked where rn <= ? order by course_id, rn";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.findTopGradesPerCourse");
+                Connection conn = DBConnection.getReadConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setInt(1, k);
+
+            ResultSet rs = ps.executeQuery();
+            List<Enrollment> enrollmentsList = new ArrayList<>();
+
+            while (rs.next()) enrollmentsList.add(mapEnrollment(rs));
+
+            return timer.returning(enrollmentsList);
+        } catch (SQLException e) {
+            throw new SQLException("Finding top grades per course in database failed.", e);
+        }
+    }
+
+    public Map<Integer, long[]> findGradeHistograms() throws SQLException {
+        String sqlQuery = "select course_id, grade, count(*) from enrollment where grade is not null group by course_id, grade";
 
-        for (String key: updateMap.keySet()) {
-            sqlQuery += key + " = ?";
-            updateCount++;
+        try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.findGradeHistograms");
+                Connection conn = DBConnection.getReadConnection();
+                Statement stmt = conn.createStatement()
+        ) {
+            ResultSet rs = stmt.executeQuery(sqlQuery);
+            Map<Integer, long[]> histograms = new HashMap<>();
 
-            if (updateCount < updateMap.size()) sqlQuery += ", ";
+            while (rs.next()) addToHistogram(histograms, rs.getInt(1), rs.getInt(2), rs.getLong(3));
+
+            return timer.returning(histograms);
+        } catch (SQLException e) {
+            throw new SQLException("Finding grade histograms in database failed.", e);
         }
+    }
 
-        sqlQuery += "where id = ?";
+    public int update(int enrollmentId, int expectedVersion, Map<String, Object> updateMap) throws SQLException {
+        try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.update");
+                Connection conn = DBConnection.getConnection()
+        ) {
+            updateStatements.update(conn, "Enrollment", enrollmentId, expectedVersion, updateMap, () -> new EnrollmentNotFoundException(enrollmentId));
+            timer.rows(1);
+
+            cache.invalidate(enrollmentId);
+            InvalidationBus.publish(conn, "enrollment", enrollmentId);
+
+            return expectedVersion + 1;
+        } catch (SQLException e) {
+            throw new SQLException("Updating enrollment in database failed!", e);
+        }
+    }
+
+    public int updateMany(int[] ids, Map<String, Object> updateMap) throws SQLException {
+        String sqlQuery = updateStatements.sqlForMany(updateMap);
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.updateMany");
                 Connection conn = DBConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery)
         ) {
-            int idIndex = 1;
+            int idIndex = updateStatements.bind(ps, updateMap);
+
+            ps.setArray(idIndex, conn.createArrayOf("integer", SqlUtils.toIntegerArray(ids)));
 
-            for (String key: updateMap.keySet()) {
-                Object value = updateMap.get(key);
-                ps.setObject(idIndex++, value);
+            int rows = ps.executeUpdate();
+
+            for (int id: ids) cache.invalidate(id);
+            InvalidationBus.publish(conn, "enrollment", ids);
+
+            timer.rows(rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new SQLException("Updating enrollments in database failed!", e);
+        }
+    }
+
+    public int updateGrades(Map<Integer, Integer> gradesById) throws SQLException {
+        String sqlQuery = "update enrollment e set grade = v.grade, version = e.version + 1 from unnest(?::int[], ?::int[]) as v(id, grade) where e.id = v.id";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.updateGrades");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            Integer[] ids = new Integer[gradesById.size()];
+            Integer[] grades = new Integer[gradesById.size()];
+            int i = 0;
+
+            for (Map.Entry<Integer, Integer> entry: gradesById.entrySet()) {
+                ids[i] = entry.getKey();
+                grades[i++] = entry.getValue();
             }
 
-            ps.setInt(idIndex, enrollmentId);
-            ps.executeUpdate();
+            ps.setArray(1, conn.createArrayOf("integer", ids));
+            ps.setArray(2, conn.createArrayOf("integer", grades));
+
+            int rows = ps.executeUpdate();
+
+            for (Integer id: ids) cache.invalidate(id);
+            InvalidationBus.publish(conn, "enrollment", gradesById.keySet().stream().mapToInt(Integer::intValue).toArray());
+
+            timer.rows(rows);
+            return rows;
         } catch (SQLException e) {
-            throw new SQLException("Updating enrollment in database failed!", e);
+            throw new SQLException("Updating enrollment grades in database failed!", e);
         }
     }
 
@@ -163,13 +514,96 @@ public class EnrollmentRepository {
         String sqlQuery = "delete from enrollment where id = ?";
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.delete");
                 Connection conn = DBConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery)
         ) {
             ps.setInt(1, enrollmentId);
-            ps.executeUpdate();
+            timer.rows(ps.executeUpdate());
+
+            cache.invalidate(enrollmentId);
+            InvalidationBus.publish(conn, "enrollment", enrollmentId);
         } catch (SQLException e) {
             throw new SQLException("Deleting enrollment from database failed!", e);
         }
     }
+
+    public int deleteByIds(int[] ids) throws SQLException {
+        String sqlQuery = "delete from enrollment where id = any(?)";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.deleteByIds");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setArray(1, conn.createArrayOf("integer", SqlUtils.toIntegerArray(ids)));
+
+            int rows = ps.executeUpdate();
+
+            for (int id: ids) cache.invalidate(id);
+            InvalidationBus.publish(conn, "enrollment", ids);
+
+            timer.rows(rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new SQLException("Deleting enrollments from database failed!", e);
+        }
+    }
+
+    // Returns the rows as they were deleted, so callers adjust seats and statistics from the state this transaction removed.
+    public List<Enrollment> deleteReturning(int[] ids) throws SQLException {
+        String sqlQuery = "delete from enrollment where id = any(?) returning *";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("EnrollmentRepository.deleteReturning");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setArray(1, conn.createArrayOf("integer", SqlUtils.toIntegerArray(ids)));
+
+            ResultSet rs = ps.executeQuery();
+            List<Enrollment> deleted = new ArrayList<>();
+
+            while (rs.next()) deleted.add(mapEnrollment(rs));
+
+            for (int id: ids) cache.invalidate(id);
+            InvalidationBus.publish(conn, "enrollment", ids);
+
+            timer.rows(deleted.size());
+            return deleted;
+        } catch (SQLException e) {
+            throw new SQLException("Deleting enrollments from database failed!", e);
+        }
+    }
+
+    static Date sqlDate(LocalDate date) {
+        return date == null ? null : Date.valueOf(date);
+    }
+
+    static Enrollment mapEnrollment(ResultSet rs) throws SQLException {
+        Date date = rs.getDate("enrollment_date");
+
+        Enrollment enrollment = new Enrollment(
+                rs.getInt("student_id"),
+                rs.getInt("course_id"),
+                rs.getObject("grade", Integer.class),
+                date == null ? null : date.toLocalDate()
+        );
+
+        enrollment.setId(rs.getInt("id"));
+        enrollment.setVersion(rs.getInt("version"));
+
+        return enrollment;
+    }
+
+    static void addToHistogram(Map<Integer, long[]> histograms, int courseId, int grade, long count) {
+        // Grades are validated to 0..100 on every write, so anything else is legacy data the histogram cannot hold.
+        if (grade < 0 || grade > 100) return;
+
+        histograms.computeIfAbsent(courseId, id -> new long[101])[grade] += count;
+    }
+
+    private static long enrollmentKey(int studentId, int courseId) {
+        return ((long) studentId << 32) | (courseId & 0xffffffffL);
+    }
 }
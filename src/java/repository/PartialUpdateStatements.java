@@ -0,0 +1,111 @@
+package repository;
+
+import exception.OptimisticLockException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+class PartialUpdateStatements {
+    private final String table;
+    private final List<String> columns;
+    private final AtomicReferenceArray<String> sqlByColumnSet;
+    private final AtomicReferenceArray<String> sqlManyByColumnSet;
+
+    PartialUpdateStatements(String table, List<String> columns) {
+        if (columns.isEmpty() || columns.size() > 16) throw new IllegalArgumentException("Between 1 and 16 updatable columns are supported.");
+
+        this.table = table;
+        this.columns = columns;
+        this.sqlByColumnSet = new AtomicReferenceArray<>(1 << columns.size());
+        this.sqlManyByColumnSet = new AtomicReferenceArray<>(1 << columns.size());
+    }
+
+    String sqlFor(Map<String, Object> updateMap) {
+        return cachedSql(sqlByColumnSet, columnSetOf(updateMap), "id = ? and version = ?");
+    }
+
+    String sqlForMany(Map<String, Object> updateMap) {
+        return cachedSql(sqlManyByColumnSet, columnSetOf(updateMap), "id = any(?)");
+    }
+
+    int bind(PreparedStatement ps, Map<String, Object> updateMap) throws SQLException {
+        int index = 1;
+
+        for (String column: columns) {
+            if (updateMap.containsKey(column)) ps.setObject(index++, updateMap.get(column));
+        }
+
+        return index;
+    }
+
+    // A missed compare-and-set means the row is gone or another writer bumped its version first.
+    void update(Connection conn, String entity, int id, int expectedVersion, Map<String, Object> updateMap, Supplier<? extends RuntimeException> notFound) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sqlFor(updateMap))) {
+            int idIndex = bind(ps, updateMap);
+
+            ps.setInt(idIndex, id);
+            ps.setInt(idIndex + 1, expectedVersion);
+
+            if (ps.executeUpdate() > 0) return;
+        }
+
+        if (!exists(conn, id)) throw notFound.get();
+        throw new OptimisticLockException(entity, id, expectedVersion);
+    }
+
+    boolean exists(Connection conn, int id) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("select 1 from " + table + " where id = ?")) {
+            ps.setInt(1, id);
+
+            ResultSet rs = ps.executeQuery();
+            return rs.next();
+        }
+    }
+
+    private int columnSetOf(Map<String, Object> updateMap) {
+        int columnSet = 0;
+
+        for (String key: updateMap.keySet()) {
+            int position = columns.indexOf(key);
+            if (position < 0) throw new IllegalArgumentException("Key '" + key + "' is not valid.");
+
+            columnSet |= 1 << position;
+        }
+
+        if (columnSet == 0) throw new IllegalArgumentException("updateMap cannot be empty.");
+
+        return columnSet;
+    }
+
+    private String cachedSql(AtomicReferenceArray<String> cache, int columnSet, String whereClause) {
+        String sqlQuery = cache.get(columnSet);
+
+        if (sqlQuery == null) {
+            sqlQuery = buildSql(columnSet, whereClause);
+            cache.compareAndSet(columnSet, null, sqlQuery);
+        }
+
+        return sqlQuery;
+    }
+
+    private String buildSql(int columnSet, String whereClause) {
+        StringBuilder sqlQuery = new StringBuilder("update ").append(table).append(" set ");
+        boolean first = true;
+
+        for (int i = 0; i < columns.size(); i++) {
+            if ((columnSet & (1 << i)) == 0) continue;
+
+            if (!first) sqlQuery.append(", ");
+            sqlQuery.append(columns.get(i)).append(" = ?");
+            first = false;
+        }
+
+        return sqlQuery.append(", version = version + 1 where ").append(whereClause).toString();
+    }
+}
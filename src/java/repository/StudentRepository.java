@@ -1,23 +1,58 @@
 package repository;
 
+import cache.EntityCache;
+import cache.EntityCaches;
+import cache.InvalidationBus;
 import config.DBConnection;
+import criteria.Criteria;
 import exception.NoStudentsFoundException;
 import exception.StudentAlreadyExistsException;
 import exception.StudentNotFoundException;
+import metrics.OperationTimer;
+import metrics.RepositoryMetrics;
+import model.Enrollment;
 import model.Student;
+import utils.CopyUtils;
+import utils.GradePoints;
+import utils.SqlUtils;
 import utils.ValidationUtils;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.stream.Stream;
 
 public class StudentRepository {
+    public static final List<String> UPDATABLE_COLUMNS = List.of("name", "major", "gpa");
+
+    // Ungraded enrollments count toward neither points nor credits; gpa is null when nothing is graded.
+    private static final String TRANSCRIPT_GPA_QUERY = "select st.id, round(sum(" + GradePoints.SQL + " * c.credits) filter (where e.grade is not null) / " +
+            "nullif(sum(c.credits) filter (where e.grade is not null), 0), 2) as gpa " +
+            "from student st left join enrollment e on e.student_id = st.id left join course c on c.id = e.course_id";
+
+    private static final PartialUpdateStatements updateStatements = new PartialUpdateStatements("student", UPDATABLE_COLUMNS);
+
+    private final EntityCache<Integer, Student> cache;
+
+    public StudentRepository() {
+        this(EntityCaches.students());
+    }
+
+    public StudentRepository(EntityCache<Integer, Student> cache) {
+        this.cache = cache;
+    }
+
     public void create(List<Student> studentList) throws SQLException {
         String sqlQuery = "insert into student (name, major, year, gpa) values (?, ?, ?, ?)";
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.create");
                 Connection conn = DBConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery, Statement.RETURN_GENERATED_KEYS)
         ) {
@@ -35,15 +70,44 @@ public class StudentRepository {
             int i = 0;
 
             while (rs.next()) studentList.get(i++).setId(rs.getInt(1));
+
+            for (Student s: studentList) cache.put(s.getId(), s.copy());
+
+            InvalidationBus.publish(conn, "student", studentList.stream().mapToInt(Student::getId).toArray());
+
+            timer.rows(studentList.size());
         } catch (SQLException e) {
             throw new SQLException("Creating students in database failed!");
         }
     }
 
+    public void copy(List<Student> studentList) throws SQLException {
+        try (OperationTimer timer = RepositoryMetrics.start("StudentRepository.copy")) {
+            int[] ids = CopyUtils.copyWithGeneratedIds("student", "name, major, year, gpa", studentList, s -> new Object[] { s.getName(), s.getMajor(), s.getYear(), s.getGpa() });
+
+            for (int i = 0; i < ids.length; i++) studentList.get(i).setId(ids[i]);
+
+            if (InvalidationBus.isEnabled()) {
+                try (Connection conn = DBConnection.getConnection()) {
+                    InvalidationBus.publishAll(conn, "student");
+                }
+            }
+
+            timer.rows(ids.length);
+        } catch (SQLException e) {
+            throw new SQLException("Copying students into database failed!", e);
+        }
+    }
+
     public Optional<Student> findById(int studentId) throws SQLException {
+        Student cached = cache.get(studentId);
+        if (cached != null) return Optional.of(cached.copy());
+
+        long generation = cache.generation(studentId);
         String sqlQuery = "select * from student where id = ?";
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.findById");
                 Connection conn = DBConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery)
         ) {
@@ -52,82 +116,397 @@ public class StudentRepository {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                Student s = new Student(
-                        rs.getString("name"),
-                        rs.getString("major"),
-                        rs.getInt("year"),
-                        rs.getDouble("gpa")
-                );
-
-                s.setId(rs.getInt("id"));
+                Student s = mapStudent(rs);
+                cache.putIfUnchanged(studentId, s.copy(), generation);
 
-                return Optional.of(s);
+                return timer.returning(Optional.of(s));
             } else {
-                return Optional.empty();
+                return timer.returning(Optional.empty());
             }
         } catch (SQLException e) {
             throw new SQLException("Finding student by id in database failed.", e);
         }
     }
 
+    // Skips the cache so read-modify-write sees the version it is about to compare against.
+    public Optional<Student> findLatestById(int studentId) throws SQLException {
+        String sqlQuery = "select * from student where id = ?";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.findLatestById");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setInt(1, studentId);
+
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) return timer.returning(Optional.empty());
+
+            return timer.returning(Optional.of(mapStudent(rs)));
+        } catch (SQLException e) {
+            throw new SQLException("Finding latest student by id in database failed.", e);
+        }
+    }
+
+    public Optional<Student> findByIdForUpdate(int studentId) throws SQLException {
+        String sqlQuery = "select * from student where id = ? for update";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.findByIdForUpdate");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setInt(1, studentId);
+
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) return timer.returning(Optional.empty());
+
+            return timer.returning(Optional.of(mapStudent(rs)));
+        } catch (SQLException e) {
+            throw new SQLException("Locking student by id in database failed.", e);
+        }
+    }
+
+    public List<Student> findByIds(Collection<Integer> ids) throws SQLException {
+        List<Student> studentsList = new ArrayList<>(ids.size());
+        Map<Integer, Long> missingGenerations = new LinkedHashMap<>();
+
+        for (Integer id: new LinkedHashSet<>(ids)) {
+            Student cached = cache.get(id);
+
+            if (cached != null) {
+                studentsList.add(cached.copy());
+            } else {
+                missingGenerations.put(id, cache.generation(id));
+            }
+        }
+
+        if (missingGenerations.isEmpty()) return studentsList;
+
+        String sqlQuery = "select * from student where id = any(?)";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.findByIds");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setArray(1, conn.createArrayOf("integer", missingGenerations.keySet().toArray(new Integer[0])));
+
+            ResultSet rs = ps.executeQuery();
+            int rows = 0;
+
+            while (rs.next()) {
+                Student s = mapStudent(rs);
+                cache.putIfUnchanged(s.getId(), s.copy(), missingGenerations.get(s.getId()));
+
+                studentsList.add(s);
+                rows++;
+            }
+
+            timer.rows(rows);
+            return studentsList;
+        } catch (SQLException e) {
+            throw new SQLException("Finding students by ids in database failed.", e);
+        }
+    }
+
     public Optional<List<Student>> findAll() throws SQLException {
         String sqlQuery = "select * from student";
 
         try (
-                Connection conn = DBConnection.getConnection();
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.findAll");
+                Connection conn = DBConnection.getReadConnection();
                 Statement stmt = conn.createStatement()
         ) {
             ResultSet rs = stmt.executeQuery(sqlQuery);
             List<Student> studentsList = new ArrayList<>();
 
-            while (rs.next()) {
-                Student s = new Student(
-                        rs.getString("name"),
-                        rs.getString("major"),
-                        rs.getInt("year"),
-                        rs.getDouble("gpa")
-                );
-
-                s.setId(rs.getInt("id"));
-                studentsList.add(s);
-            }
+            while (rs.next()) studentsList.add(mapStudent(rs));
 
-            if (studentsList.isEmpty()) return Optional.empty();
+            if (studentsList.isEmpty()) return timer.returning(Optional.empty());
 
-            return Optional.of(studentsList);
+            return timer.returning(Optional.of(studentsList));
         } catch (SQLException e) {
             throw new SQLException("Finding all students in database failed.", e);
         }
     }
 
-    public void update(int studentId, Map<String, Object> updateMap) throws SQLException {
-        String sqlQuery = "update student set ";
-        int updateCount = 0;
+    public Stream<Student> streamAll() throws SQLException {
+        return streamAll(DBConnection.DEFAULT_FETCH_SIZE);
+    }
+
+    public Stream<Student> streamAll(int fetchSize) throws SQLException {
+        OperationTimer timer = RepositoryMetrics.start("StudentRepository.streamAll");
+
+        try {
+            return RepositoryMetrics.track(timer, SqlUtils.stream("select * from student", List.of(), fetchSize, this::mapStudent));
+        } catch (SQLException e) {
+            timer.close();
+            throw new SQLException("Streaming all students from database failed.", e);
+        }
+    }
+
+    public Optional<List<Student>> findAll(Criteria<Student> criteria) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sqlQuery = "select * from student where " + criteria.toSql(params);
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.findAllByCriteria");
+                Connection conn = DBConnection.getReadConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            SqlUtils.setParameters(ps, params);
+
+            ResultSet rs = ps.executeQuery();
+            List<Student> studentsList = new ArrayList<>();
+
+            while (rs.next()) studentsList.add(mapStudent(rs));
+
+            if (studentsList.isEmpty()) return timer.returning(Optional.empty());
+
+            return timer.returning(Optional.of(studentsList));
+        } catch (SQLException e) {
+            throw new SQLException("Finding students by criteria in database failed.", e);
+        }
+    }
+
+    public Optional<List<Student>> findByEnrollment(Criteria<Enrollment> criteria) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sqlQuery = "select distinct s.* from student s join enrollment e on e.student_id = s.id where " + criteria.toSql("e", params);
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.findByEnrollment");
+                Connection conn = DBConnection.getReadConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            SqlUtils.setParameters(ps, params);
+
+            ResultSet rs = ps.executeQuery();
+            List<Student> studentsList = new ArrayList<>();
+
+            while (rs.next()) studentsList.add(mapStudent(rs));
+
+            if (studentsList.isEmpty()) return timer.returning(Optional.empty());
+
+            return timer.returning(Optional.of(studentsList));
+        } catch (SQLException e) {
+            throw new SQLException("Finding students by enrollment criteria in database failed.", e);
+        }
+    }
+
+    public List<Student> searchByName(String query, int limit) throws SQLException {
+        String prefix = SqlUtils.escapeLike(query) + "%";
+        String sqlQuery = "select * from student " +
+                "where name % ? or name ilike ? escape '\\' " +
+                "order by lower(name) = lower(?) desc, name ilike ? escape '\\' desc, similarity(name, ?) desc, name " +
+                "limit ?";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.searchByName");
+                Connection conn = DBConnection.getReadConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setString(1, query);
+            ps.setString(2, prefix);
+            ps.setString(3, query);
+            ps.setString(4, prefix);
+            ps.setString(5, query);
+            ps.setInt(6, limit);
+
+            ResultSet rs = ps.executeQuery();
+            List<Student> studentsList = new ArrayList<>();
+
+            while (rs.next()) studentsList.add(mapStudent(rs));
+
+            return timer.returning(studentsList);
+        } catch (SQLException e) {
+            throw new SQLException("Searching students by name in database failed.", e);
+        }
+    }
+
+    public List<Student> findTopByGpaPerMajor(int k) throws SQLException {
+        String sqlQuery = "select * from (" +
+                "select s.*, row_number() over (partition by major order by gpa desc nulls last, id) as rn from student s" +
+                ") ranked where rn <= ? order by major, rn";
 
-        for (String key: updateMap.keySet()) {
-            sqlQuery += key + " = ?";
-            updateCount++;
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.findTopByGpaPerMajor");
+                Connection conn = DBConnection.getReadConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setInt(1, k);
 
-            if (updateCount < updateMap.size()) sqlQuery += ", ";
+            ResultSet rs = ps.executeQuery();
+            List<Student> studentsList = new ArrayList<>();
+
+            while (rs.next()) studentsList.add(mapStudent(rs));
+
+            return timer.returning(studentsList);
+        } catch (SQLException e) {
+            throw new SQLException("Finding top students by gpa per major in database failed.", e);
         }
+    }
 
-        sqlQuery += "where id = ?";
+    public long count(Criteria<Student> criteria) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sqlQuery = "select count(*) from student where " + criteria.toSql(params);
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.count");
+                Connection conn = DBConnection.getReadConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            SqlUtils.setParameters(ps, params);
+
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+
+            return timer.returning(rs.getLong(1));
+        } catch (SQLException e) {
+            throw new SQLException("Counting students by criteria in database failed.", e);
+        }
+    }
+
+    public int update(int studentId, int expectedVersion, Map<String, Object> updateMap) throws SQLException {
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.update");
+                Connection conn = DBConnection.getConnection()
+        ) {
+            updateStatements.update(conn, "Student", studentId, expectedVersion, updateMap, () -> new StudentNotFoundException(studentId));
+            timer.rows(1);
+
+            cache.invalidate(studentId);
+            InvalidationBus.publish(conn, "student", studentId);
+
+            return expectedVersion + 1;
+        } catch (SQLException e) {
+            throw new SQLException("Updating student in database failed!", e);
+        }
+    }
+
+    public int updateMany(int[] ids, Map<String, Object> updateMap) throws SQLException {
+        String sqlQuery = updateStatements.sqlForMany(updateMap);
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.updateMany");
                 Connection conn = DBConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery)
         ) {
-            int idIndex = 1;
+            int idIndex = updateStatements.bind(ps, updateMap);
+
+            ps.setArray(idIndex, conn.createArrayOf("integer", SqlUtils.toIntegerArray(ids)));
+
+            int rows = ps.executeUpdate();
+
+            for (int id: ids) cache.invalidate(id);
+            InvalidationBus.publish(conn, "student", ids);
+
+            timer.rows(rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new SQLException("Updating students in database failed!", e);
+        }
+    }
+
+    // Empty when the student has nothing graded yet.
+    public OptionalDouble computeTranscriptGpa(int studentId) throws SQLException {
+        String sqlQuery = TRANSCRIPT_GPA_QUERY + " where st.id = ? group by st.id";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.computeTranscriptGpa");
+                Connection conn = DBConnection.getReadConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setInt(1, studentId);
 
-            for (String key: updateMap.keySet()) {
-                Object value = updateMap.get(key);
-                ps.setObject(idIndex++, value);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) throw new StudentNotFoundException(studentId);
+
+            double gpa = rs.getDouble("gpa");
+
+            return timer.returning(rs.wasNull() ? OptionalDouble.empty() : OptionalDouble.of(gpa));
+        } catch (SQLException e) {
+            throw new SQLException("Computing transcript gpa in database failed.", e);
+        }
+    }
+
+    public int recomputeGpas(int[] ids) throws SQLException {
+        String sqlQuery = "update student s set gpa = t.gpa, version = s.version + 1 from (" + TRANSCRIPT_GPA_QUERY + " where st.id = any(?) group by st.id) t " +
+                "where s.id = t.id and t.gpa is not null and s.gpa is distinct from t.gpa returning s.id";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.recomputeGpas");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setArray(1, conn.createArrayOf("integer", SqlUtils.toIntegerArray(ids)));
+
+            ResultSet rs = ps.executeQuery();
+            List<Integer> changedIds = new ArrayList<>();
+
+            while (rs.next()) changedIds.add(rs.getInt(1));
+
+            for (Integer id: changedIds) cache.invalidate(id);
+            InvalidationBus.publish(conn, "student", changedIds.stream().mapToInt(Integer::intValue).toArray());
+
+            timer.rows(changedIds.size());
+            return changedIds.size();
+        } catch (SQLException e) {
+            throw new SQLException("Recomputing student gpas in database failed!", e);
+        }
+    }
+
+    public int recomputeAllGpas() throws SQLException {
+        String sqlQuery = "update student s set gpa = t.gpa, version = s.version + 1 from (" + TRANSCRIPT_GPA_QUERY + " group by st.id) t " +
+                "where s.id = t.id and t.gpa is not null and s.gpa is distinct from t.gpa";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.recomputeAllGpas");
+                Connection conn = DBConnection.getConnection();
+                Statement stmt = conn.createStatement()
+        ) {
+            int rows = stmt.executeUpdate(sqlQuery);
+
+            cache.invalidateAll();
+            InvalidationBus.publishAll(conn, "student");
+
+            timer.rows(rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new SQLException("Recomputing all student gpas in database failed!", e);
+        }
+    }
+
+    public int updateGpas(Map<Integer, Double> gpasById) throws SQLException {
+        String sqlQuery = "update student s set gpa = v.gpa::numeric, version = s.version + 1 from unnest(?::int[], ?::float8[]) as v(id, gpa) " +
+                "where s.id = v.id and s.gpa is distinct from v.gpa::numeric";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.updateGpas");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            Integer[] ids = new Integer[gpasById.size()];
+            Double[] gpas = new Double[gpasById.size()];
+            int i = 0;
+
+            for (Map.Entry<Integer, Double> entry: gpasById.entrySet()) {
+                ids[i] = entry.getKey();
+                gpas[i++] = entry.getValue();
             }
 
-            ps.setInt(idIndex, studentId);
-            ps.executeUpdate();
+            ps.setArray(1, conn.createArrayOf("integer", ids));
+            ps.setArray(2, conn.createArrayOf("float8", gpas));
+
+            int rows = ps.executeUpdate();
+
+            for (Integer id: ids) cache.invalidate(id);
+            InvalidationBus.publish(conn, "student", gpasById.keySet().stream().mapToInt(Integer::intValue).toArray());
+
+            timer.rows(rows);
+            return rows;
         } catch (SQLException e) {
-            throw new SQLException("Updating student in database failed!", e);
+            throw new SQLException("Updating student gpas in database failed!", e);
         }
     }
 
@@ -135,13 +514,53 @@ public class StudentRepository {
         String sqlQuery = "delete from student where id = ?";
 
         try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.delete");
                 Connection conn = DBConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sqlQuery)
         ) {
             ps.setInt(1, studentId);
-            ps.executeUpdate();
+            timer.rows(ps.executeUpdate());
+
+            cache.invalidate(studentId);
+            InvalidationBus.publish(conn, "student", studentId);
         } catch (SQLException e) {
             throw new SQLException("Deleting student from database failed!", e);
         }
     }
+
+    public int deleteByIds(int[] ids) throws SQLException {
+        String sqlQuery = "delete from student where id = any(?)";
+
+        try (
+                OperationTimer timer = RepositoryMetrics.start("StudentRepository.deleteByIds");
+                Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sqlQuery)
+        ) {
+            ps.setArray(1, conn.createArrayOf("integer", SqlUtils.toIntegerArray(ids)));
+
+            int rows = ps.executeUpdate();
+
+            for (int id: ids) cache.invalidate(id);
+            InvalidationBus.publish(conn, "student", ids);
+
+            timer.rows(rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new SQLException("Deleting students from database failed!", e);
+        }
+    }
+
+    private Student mapStudent(ResultSet rs) throws SQLException {
+        Student s = new Student(
+                rs.getString("name"),
+                rs.getString("major"),
+                rs.getInt("year"),
+                rs.getDouble("gpa")
+        );
+
+        s.setId(rs.getInt("id"));
+        s.setVersion(rs.getInt("version"));
+
+        return s;
+    }
 }
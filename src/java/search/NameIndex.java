@@ -0,0 +1,172 @@
+package search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+class NameIndex {
+    private static final double MIN_SIMILARITY = 0.3;
+    private static final double EXACT_SCORE = 4.0;
+    private static final double PREFIX_SCORE = 3.0;
+    private static final double WORD_PREFIX_SCORE = 2.0;
+
+    private final Map<Integer, String> namesById = new HashMap<>();
+    private final Map<Integer, Integer> trigramCounts = new HashMap<>();
+    private final NavigableMap<String, Set<Integer>> idsByWord = new TreeMap<>();
+    private final Map<String, Set<Integer>> idsByTrigram = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void put(int id, String name) {
+        lock.writeLock().lock();
+
+        try {
+            removeUnlocked(id);
+
+            String normalized = normalize(name);
+            Set<String> trigrams = trigrams(normalized);
+
+            namesById.put(id, normalized);
+            trigramCounts.put(id, trigrams.size());
+
+            for (String word: words(normalized)) idsByWord.computeIfAbsent(word, w -> new HashSet<>()).add(id);
+            for (String trigram: trigrams) idsByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int id) {
+        lock.writeLock().lock();
+
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+
+        try {
+            namesById.clear();
+            trigramCounts.clear();
+            idsByWord.clear();
+            idsByTrigram.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+
+        try {
+            return namesById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Integer> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) return new ArrayList<>();
+
+        lock.readLock().lock();
+
+        try {
+            Map<Integer, Double> scores = new HashMap<>();
+
+            String firstWord = words(normalized).get(0);
+
+            for (Set<Integer> ids: idsByWord.subMap(firstWord, true, firstWord + Character.MAX_VALUE, true).values()) {
+                for (Integer id: ids) {
+                    String name = namesById.get(id);
+
+                    if (name.equals(normalized)) {
+                        scores.merge(id, EXACT_SCORE, Math::max);
+                    } else if (name.startsWith(normalized)) {
+                        scores.merge(id, PREFIX_SCORE, Math::max);
+                    } else if (name.contains(" " + normalized)) {
+                        scores.merge(id, WORD_PREFIX_SCORE, Math::max);
+                    }
+                }
+            }
+
+            Set<String> queryTrigrams = trigrams(normalized);
+            Map<Integer, Integer> sharedCounts = new HashMap<>();
+
+            for (String trigram: queryTrigrams) {
+                Set<Integer> ids = idsByTrigram.get(trigram);
+                if (ids != null) for (Integer id: ids) sharedCounts.merge(id, 1, Integer::sum);
+            }
+
+            for (Map.Entry<Integer, Integer> entry: sharedCounts.entrySet()) {
+                int shared = entry.getValue();
+                double similarity = (double) shared / (queryTrigrams.size() + trigramCounts.get(entry.getKey()) - shared);
+
+                if (similarity >= MIN_SIMILARITY) scores.merge(entry.getKey(), similarity, Math::max);
+            }
+
+            List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Comparator.<Map.Entry<Integer, Double>>comparingDouble(Map.Entry::getValue).reversed()
+                    .thenComparing(entry -> namesById.get(entry.getKey()))
+                    .thenComparing(Map.Entry::getKey));
+
+            List<Integer> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) ids.add(ranked.get(i).getKey());
+
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeUnlocked(int id) {
+        String name = namesById.remove(id);
+        if (name == null) return;
+
+        trigramCounts.remove(id);
+
+        for (String word: words(name)) removeId(idsByWord, word, id);
+        for (String trigram: trigrams(name)) removeId(idsByTrigram, trigram, id);
+    }
+
+    private static void removeId(Map<String, Set<Integer>> index, String key, int id) {
+        Set<Integer> ids = index.get(key);
+        if (ids == null) return;
+
+        ids.remove(id);
+        if (ids.isEmpty()) index.remove(key);
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static List<String> words(String normalized) {
+        return List.of(normalized.split(" "));
+    }
+
+    // Same scheme as pg_trgm: each word padded with two leading spaces and one trailing space.
+    private static Set<String> trigrams(String normalized) {
+        Set<String> trigrams = new HashSet<>();
+
+        for (String word: words(normalized)) {
+            if (word.isEmpty()) continue;
+
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) trigrams.add(padded.substring(i, i + 3));
+        }
+
+        return trigrams;
+    }
+}
@@ -0,0 +1,93 @@
+package search;
+
+import cache.InvalidationBus;
+import config.UnitOfWork;
+import model.Student;
+import repository.StudentRepository;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class StudentNameIndex {
+    private static final StudentNameIndex shared = new StudentNameIndex();
+
+    static {
+        InvalidationBus.addListener(table -> {
+            if (table.equals("student") || table.equals(InvalidationBus.ALL_TABLES)) shared.invalidate();
+        });
+    }
+
+    private final StudentRepository studentRepository;
+    private final NameIndex index = new NameIndex();
+
+    private volatile boolean loaded;
+
+    public StudentNameIndex() {
+        studentRepository = new StudentRepository();
+    }
+
+    public static StudentNameIndex getShared() {
+        return shared;
+    }
+
+    public void recordAdded(List<Student> studentList) {
+        afterCommit(() -> {
+            for (Student student: studentList) index.put(student.getId(), student.getName());
+        });
+    }
+
+    public void recordRenamed(int studentId, String name) {
+        afterCommit(() -> index.put(studentId, name));
+    }
+
+    public void recordRemoved(int... studentIds) {
+        afterCommit(() -> {
+            for (int studentId: studentIds) index.remove(studentId);
+        });
+    }
+
+    public void invalidate() {
+        UnitOfWork.afterCommit(this::clear);
+    }
+
+    public List<Integer> search(String query, int limit) {
+        ensureLoaded();
+
+        return index.search(query, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private void afterCommit(Runnable change) {
+        UnitOfWork.afterCommit(() -> apply(change));
+    }
+
+    private synchronized void apply(Runnable change) {
+        if (loaded) change.run();
+    }
+
+    private synchronized void clear() {
+        loaded = false;
+        index.clear();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+
+        synchronized (this) {
+            if (loaded) return;
+
+            index.clear();
+
+            try (Stream<Student> students = studentRepository.streamAll()) {
+                students.forEach(student -> index.put(student.getId(), student.getName()));
+                loaded = true;
+            } catch (SQLException e) {
+                throw new RuntimeException("Loading student name index failed.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package service;
+
+import analytics.AnalyticsDataset;
+import analytics.ChunkedTask;
+import model.DateBucket;
+import model.GpaDistribution;
+import utils.ValidationUtils;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+public class AnalyticsService {
+    private static final double MAX_GPA = 4.0;
+    private static final int GRADE_BUCKETS = 101;
+
+    private final AnalyticsDataset dataset;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public AnalyticsService(AnalyticsDataset dataset) {
+        this(dataset, ForkJoinPool.commonPool(), ChunkedTask.DEFAULT_THRESHOLD);
+    }
+
+    public AnalyticsService(AnalyticsDataset dataset, ForkJoinPool pool, int threshold) {
+        ValidationUtils.validateNotNull(dataset, "dataset");
+        if (threshold < 1) throw new IllegalArgumentException("threshold must be positive.");
+
+        this.dataset = dataset;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public static AnalyticsService serial(AnalyticsDataset dataset) {
+        return new AnalyticsService(dataset, null, Integer.MAX_VALUE);
+    }
+
+    public static AnalyticsService load() {
+        try {
+            return new AnalyticsService(AnalyticsDataset.load());
+        } catch (SQLException e) {
+            throw new RuntimeException("Loading analytics dataset failed.", e);
+        }
+    }
+
+    public Map<String, GpaDistribution> gpaDistributionByMajor(int bucketCount) {
+        if (bucketCount < 1) throw new IllegalArgumentException("bucketCount must be positive.");
+
+        String[] majors = dataset.getMajors();
+        GpaAccumulator totals = run(new GpaTask(dataset, majors.length, bucketCount, 0, dataset.getStudentCount(), threshold));
+
+        Map<String, GpaDistribution> distributions = new LinkedHashMap<>();
+
+        for (int major = 0; major < majors.length; major++) {
+            long count = totals.counts[major];
+            long[] buckets = new long[bucketCount];
+            System.arraycopy(totals.buckets, major * bucketCount, buckets, 0, bucketCount);
+
+            distributions.put(majors[major], new GpaDistribution(majors[major], MAX_GPA / bucketCount, buckets, count, count == 0 ? 0 : totals.sums[major] / count));
+        }
+
+        return distributions;
+    }
+
+    public Map<String, long[]> gradeHistogramsByDepartment() {
+        String[] departments = dataset.getDepartments();
+        long[] totals = run(new GradeHistogramTask(dataset, departments.length, 0, dataset.getEnrollmentCount(), threshold));
+
+        Map<String, long[]> histograms = new LinkedHashMap<>();
+
+        for (int department = 0; department < departments.length; department++) {
+            long[] histogram = new long[GRADE_BUCKETS];
+            System.arraycopy(totals, department * GRADE_BUCKETS, histogram, 0, GRADE_BUCKETS);
+
+            histograms.put(departments[department], histogram);
+        }
+
+        return histograms;
+    }
+
+    public SortedMap<LocalDate, Long> enrollmentCountsByDate(DateBucket bucket) {
+        ValidationUtils.validateNotNull(bucket, "bucket");
+
+        SortedMap<LocalDate, Long> counts = new TreeMap<>();
+        if (dataset.getEnrollmentCount() == 0) return counts;
+
+        long[] range = run(new DayRangeTask(dataset, 0, dataset.getEnrollmentCount(), threshold));
+        if (range[0] > range[1]) return counts;
+
+        int firstDay = (int) range[0];
+        long[] dayCounts = run(new DayCountTask(dataset, firstDay, (int) (range[1] - range[0] + 1), 0, dataset.getEnrollmentCount(), threshold));
+
+        for (int i = 0; i < dayCounts.length; i++) {
+            if (dayCounts[i] > 0) counts.merge(truncate(LocalDate.ofEpochDay(firstDay + i), bucket), dayCounts[i], Long::sum);
+        }
+
+        return counts;
+    }
+
+    public int[] studentIdsByDepartment(String department) {
+        ValidationUtils.validateString(department, "department");
+
+        int departmentCode = dataset.departmentCode(department);
+        if (departmentCode < 0) return new int[0];
+
+        return run(new DepartmentStudentsTask(dataset, departmentCode, 0, dataset.getEnrollmentCount(), threshold))
+                .stream()
+                .toArray();
+    }
+
+    private <A> A run(ChunkedTask<A> task) {
+        return pool == null ? task.computeSerially() : pool.invoke(task);
+    }
+
+    private static LocalDate truncate(LocalDate date, DateBucket bucket) {
+        return switch (bucket) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    private static int departmentOf(int[] departmentByCourseId, int courseId) {
+        return courseId >= 0 && courseId < departmentByCourseId.length ? departmentByCourseId[courseId] : -1;
+    }
+
+    private static class GpaAccumulator {
+        private final long[] buckets;
+        private final long[] counts;
+        private final double[] sums;
+
+        private GpaAccumulator(int majorCount, int bucketCount) {
+            buckets = new long[majorCount * bucketCount];
+            counts = new long[majorCount];
+            sums = new double[majorCount];
+        }
+    }
+
+    private static class GpaTask extends ChunkedTask<GpaAccumulator> {
+        private final AnalyticsDataset dataset;
+        private final int majorCount;
+        private final int bucketCount;
+
+        private GpaTask(AnalyticsDataset dataset, int majorCount, int bucketCount, int from, int to, int threshold) {
+            super(from, to, threshold);
+
+            this.dataset = dataset;
+            this.majorCount = majorCount;
+            this.bucketCount = bucketCount;
+        }
+
+        @Override
+        protected GpaAccumulator newAccumulator() {
+            return new GpaAccumulator(majorCount, bucketCount);
+        }
+
+        @Override
+        protected void accumulate(int from, int to, GpaAccumulator accumulator) {
+            int[] majors = dataset.getStudentMajors();
+            double[] gpas = dataset.getStudentGpas();
+            double scale = bucketCount / MAX_GPA;
+
+            for (int i = from; i < to; i++) {
+                int major = majors[i];
+                double gpa = gpas[i];
+                int bucket = Math.max(0, Math.min(bucketCount - 1, (int) (gpa * scale)));
+
+                accumulator.buckets[major * bucketCount + bucket]++;
+                accumulator.counts[major]++;
+                accumulator.sums[major] += gpa;
+            }
+        }
+
+        @Override
+        protected GpaAccumulator merge(GpaAccumulator left, GpaAccumulator right) {
+            add(left.buckets, right.buckets);
+            add(left.counts, right.counts);
+            for (int i = 0; i < left.sums.length; i++) left.sums[i] += right.sums[i];
+
+            return left;
+        }
+
+        @Override
+        protected ChunkedTask<GpaAccumulator> subtask(int from, int to) {
+            return new GpaTask(dataset, majorCount, bucketCount, from, to, getThreshold());
+        }
+    }
+
+    private static class GradeHistogramTask extends ChunkedTask<long[]> {
+        private final AnalyticsDataset dataset;
+        private final int departmentCount;
+
+        private GradeHistogramTask(AnalyticsDataset dataset, int departmentCount, int from, int to, int threshold) {
+            super(from, to, threshold);
+
+            this.dataset = dataset;
+            this.departmentCount = departmentCount;
+        }
+
+        @Override
+        protected long[] newAccumulator() {
+            return new long[departmentCount * GRADE_BUCKETS];
+        }
+
+        @Override
+        protected void accumulate(int from, int to, long[] histogram) {
+            int[] courseIds = dataset.getEnrollmentCourseIds();
+            byte[] grades = dataset.getEnrollmentGrades();
+            int[] departmentByCourseId = dataset.getDepartmentByCourseId();
+
+            for (int i = from; i < to; i++) {
+                int department = departmentOf(departmentByCourseId, courseIds[i]);
+                if (department >= 0 && grades[i] != AnalyticsDataset.NO_GRADE) histogram[department * GRADE_BUCKETS + grades[i]]++;
+            }
+        }
+
+        @Override
+        protected long[] merge(long[] left, long[] right) {
+            return add(left, right);
+        }
+
+        @Override
+        protected ChunkedTask<long[]> subtask(int from, int to) {
+            return new GradeHistogramTask(dataset, departmentCount, from, to, getThreshold());
+        }
+    }
+
+    private static class DayRangeTask extends ChunkedTask<long[]> {
+        private final AnalyticsDataset dataset;
+
+        private DayRangeTask(AnalyticsDataset dataset, int from, int to, int threshold) {
+            super(from, to, threshold);
+
+            this.dataset = dataset;
+        }
+
+        @Override
+        protected long[] newAccumulator() {
+            return new long[] { Long.MAX_VALUE, Long.MIN_VALUE };
+        }
+
+        @Override
+        protected void accumulate(int from, int to, long[] range) {
+            int[] days = dataset.getEnrollmentDays();
+
+            for (int i = from; i < to; i++) {
+                if (days[i] == AnalyticsDataset.NO_DAY) continue;
+                if (days[i] < range[0]) range[0] = days[i];
+                if (days[i] > range[1]) range[1] = days[i];
+            }
+        }
+
+        @Override
+        protected long[] merge(long[] left, long[] right) {
+            left[0] = Math.min(left[0], right[0]);
+            left[1] = Math.max(left[1], right[1]);
+
+            return left;
+        }
+
+        @Override
+        protected ChunkedTask<long[]> subtask(int from, int to) {
+            return new DayRangeTask(dataset, from, to, getThreshold());
+        }
+    }
+
+    private static class DayCountTask extends ChunkedTask<long[]> {
+        private final AnalyticsDataset dataset;
+        private final int firstDay;
+        private final int dayCount;
+
+        private DayCountTask(AnalyticsDataset dataset, int firstDay, int dayCount, int from, int to, int threshold) {
+            super(from, to, threshold);
+
+            this.dataset = dataset;
+            this.firstDay = firstDay;
+            this.dayCount = dayCount;
+        }
+
+        @Override
+        protected long[] newAccumulator() {
+            return new long[dayCount];
+        }
+
+        @Override
+        protected void accumulate(int from, int to, long[] counts) {
+            int[] days = dataset.getEnrollmentDays();
+
+            for (int i = from; i < to; i++) {
+                if (days[i] != AnalyticsDataset.NO_DAY) counts[days[i] - firstDay]++;
+            }
+        }
+
+        @Override
+        protected long[] merge(long[] left, long[] right) {
+            return add(left, right);
+        }
+
+        @Override
+        protected ChunkedTask<long[]> subtask(int from, int to) {
+            return new DayCountTask(dataset, firstDay, dayCount, from, to, getThreshold());
+        }
+    }
+
+    private static class DepartmentStudentsTask extends ChunkedTask<BitSet> {
+        private final AnalyticsDataset dataset;
+        private final int departmentCode;
+
+        private DepartmentStudentsTask(AnalyticsDataset dataset, int departmentCode, int from, int to, int threshold) {
+            super(from, to, threshold);
+
+            this.dataset = dataset;
+            this.departmentCode = departmentCode;
+        }
+
+        @Override
+        protected BitSet newAccumulator() {
+            return new BitSet();
+        }
+
+        @Override
+        protected void accumulate(int from, int to, BitSet studentIds) {
+            int[] enrollmentStudentIds = dataset.getEnrollmentStudentIds();
+            int[] courseIds = dataset.getEnrollmentCourseIds();
+            int[] departmentByCourseId = dataset.getDepartmentByCourseId();
+
+            for (int i = from; i < to; i++) {
+                if (departmentOf(departmentByCourseId, courseIds[i]) == departmentCode) studentIds.set(enrollmentStudentIds[i]);
+            }
+        }
+
+        @Override
+        protected BitSet merge(BitSet left, BitSet right) {
+            left.or(right);
+            return left;
+        }
+
+        @Override
+        protected ChunkedTask<BitSet> subtask(int from, int to) {
+            return new DepartmentStudentsTask(dataset, departmentCode, from, to, getThreshold());
+        }
+    }
+}
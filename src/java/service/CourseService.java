@@ -1,20 +1,35 @@
 package service;
 
+import criteria.Criteria;
 import exception.CourseAlreadyExistsException;
 import exception.CourseNotFoundException;
 import exception.NoCoursesFoundException;
 import model.Course;
+import model.CourseUpdate;
 import repository.CourseRepository;
+import utils.AsyncUtils;
+import utils.BatchLoader;
+import utils.RetryUtils;
 import utils.ValidationUtils;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class CourseService {
+    private static final int COPY_THRESHOLD = 1_000;
+
     private final CourseRepository courseRepository;
 
-    private final List<String> validUpdateKeys = List.of("title", "department", "credits");
+    private final List<String> validUpdateKeys = CourseRepository.UPDATABLE_COLUMNS;
 
     public CourseService() {
         courseRepository = new CourseRepository();
@@ -29,12 +44,21 @@ public class CourseService {
         }
 
         try {
-            courseRepository.create(courseList);
+            if (courseList.size() >= COPY_THRESHOLD) {
+                courseRepository.copy(courseList);
+            } else {
+                courseRepository.create(courseList);
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Registering courses failed.", e);
         }
     }
 
+    public void updateCourse(int courseId, CourseUpdate update) {
+        ValidationUtils.validateNotNull(update, "update");
+        updateCourse(courseId, update.toMap());
+    }
+
     public void updateCourse(int courseId, Map<String, Object> updateMap) {
         ValidationUtils.validateId(courseId);
         ValidationUtils.validateMap(updateMap, "updateMap");
@@ -43,13 +67,34 @@ public class CourseService {
             if (!validUpdateKeys.contains(key)) throw new IllegalArgumentException("Key '" + key + "' is not valid.");
         }
 
+        updateCourse(courseId, current -> updateMap);
+    }
+
+    public int updateCourse(int courseId, int expectedVersion, Map<String, Object> updateMap) {
+        ValidationUtils.validateId(courseId);
+        ValidationUtils.validateMap(updateMap, "updateMap");
+
+        for (String key: updateMap.keySet()) {
+            if (!validUpdateKeys.contains(key)) throw new IllegalArgumentException("Key '" + key + "' is not valid.");
+        }
+
         try {
-            courseRepository.update(courseId, updateMap);
+            return courseRepository.update(courseId, expectedVersion, updateMap);
         } catch (SQLException e) {
             throw new RuntimeException("Updating course failed.", e);
         }
     }
 
+    public int updateCourse(int courseId, Function<Course, Map<String, Object>> change) {
+        ValidationUtils.validateId(courseId);
+        ValidationUtils.validateNotNull(change, "change");
+
+        return RetryUtils.call(() -> {
+            Course current = findLatestCourse(courseId);
+            return updateCourse(courseId, current.getVersion(), change.apply(current));
+        });
+    }
+
     public void removeCourse(int courseId) {
         ValidationUtils.validateId(courseId);
 
@@ -60,6 +105,35 @@ public class CourseService {
         }
     }
 
+    public int updateCourses(int[] courseIds, Map<String, Object> updateMap) {
+        ValidationUtils.validateIds(courseIds, "courseIds");
+        ValidationUtils.validateMap(updateMap, "updateMap");
+
+        for (String key: updateMap.keySet()) {
+            if (!validUpdateKeys.contains(key)) throw new IllegalArgumentException("Key '" + key + "' is not valid.");
+        }
+
+        if (courseIds.length == 0) return 0;
+
+        try {
+            return courseRepository.updateMany(courseIds, updateMap);
+        } catch (SQLException e) {
+            throw new RuntimeException("Updating courses failed.", e);
+        }
+    }
+
+    public int removeCourses(int[] courseIds) {
+        ValidationUtils.validateIds(courseIds, "courseIds");
+
+        if (courseIds.length == 0) return 0;
+
+        try {
+            return courseRepository.deleteByIds(courseIds);
+        } catch (SQLException e) {
+            throw new RuntimeException("Removing courses failed.", e);
+        }
+    }
+
     public Course findCourseById(int courseId) {
         ValidationUtils.validateId(courseId);
 
@@ -71,6 +145,30 @@ public class CourseService {
         }
     }
 
+    public List<Course> findCoursesByIds(Collection<Integer> courseIds) {
+        ValidationUtils.validateNotNull(courseIds, "courseIds");
+
+        for (Integer courseId: courseIds) {
+            ValidationUtils.validateNotNull(courseId, "courseId");
+            ValidationUtils.validateId(courseId);
+        }
+
+        if (courseIds.isEmpty()) return new ArrayList<>();
+
+        try {
+            return courseRepository.findByIds(courseIds);
+        } catch (SQLException e) {
+            throw new RuntimeException("Finding courses by ids failed.", e);
+        }
+    }
+
+    public BatchLoader<Integer, Course> newCourseLoader() {
+        return new BatchLoader<>(
+                courseIds -> findCoursesByIds(courseIds).stream().collect(Collectors.toMap(Course::getId, course -> course)),
+                CourseNotFoundException::new
+        );
+    }
+
     public List<Course> findAllCourses() {
         try {
             return courseRepository.findAll()
@@ -79,4 +177,90 @@ public class CourseService {
             throw new RuntimeException("Finding all courses failed.", e);
         }
     }
+
+    public void forEachCourse(Consumer<Course> consumer) {
+        ValidationUtils.validateNotNull(consumer, "consumer");
+
+        try (Stream<Course> courses = courseRepository.streamAll()) {
+            courses.forEach(consumer);
+        } catch (SQLException e) {
+            throw new RuntimeException("Streaming all courses failed.", e);
+        }
+    }
+
+    public List<Course> findAndFilterCourses(Predicate<Course> predicate) {
+        ValidationUtils.validateNotNull(predicate, "predicate");
+
+        if (predicate instanceof Criteria<Course> criteria) {
+            try {
+                return courseRepository.findAll(criteria)
+                        .orElseGet(ArrayList::new);
+            } catch (SQLException e) {
+                throw new RuntimeException("Finding courses by criteria failed.", e);
+            }
+        }
+
+        return findAllCourses()
+                .stream()
+                .filter(predicate)
+                .collect(Collectors.toList());
+    }
+
+    public long countCourses(Predicate<Course> predicate) {
+        ValidationUtils.validateNotNull(predicate, "predicate");
+
+        if (predicate instanceof Criteria<Course> criteria) {
+            try {
+                return courseRepository.count(criteria);
+            } catch (SQLException e) {
+                throw new RuntimeException("Counting courses failed.", e);
+            }
+        }
+
+        return findAllCourses()
+                .stream()
+                .filter(predicate)
+                .count();
+    }
+
+    public CompletableFuture<Void> registerCoursesAsync(List<Course> courseList) {
+        return AsyncUtils.runAsync(() -> registerCourses(courseList));
+    }
+
+    public CompletableFuture<Void> updateCourseAsync(int courseId, Map<String, Object> updateMap) {
+        return AsyncUtils.runAsync(() -> updateCourse(courseId, updateMap));
+    }
+
+    public CompletableFuture<Void> removeCourseAsync(int courseId) {
+        return AsyncUtils.runAsync(() -> removeCourse(courseId));
+    }
+
+    public CompletableFuture<Course> findCourseByIdAsync(int courseId) {
+        return AsyncUtils.supplyAsync(() -> findCourseById(courseId));
+    }
+
+    public CompletableFuture<List<Course>> findCoursesByIdsAsync(Collection<Integer> courseIds) {
+        return AsyncUtils.supplyAsync(() -> findCoursesByIds(courseIds));
+    }
+
+    public CompletableFuture<List<Course>> findAllCoursesAsync() {
+        return AsyncUtils.supplyAsync(this::findAllCourses);
+    }
+
+    public CompletableFuture<List<Course>> findAndFilterCoursesAsync(Predicate<Course> predicate) {
+        return AsyncUtils.supplyAsync(() -> findAndFilterCourses(predicate));
+    }
+
+    public CompletableFuture<Long> countCoursesAsync(Predicate<Course> predicate) {
+        return AsyncUtils.supplyAsync(() -> countCourses(predicate));
+    }
+
+    private Course findLatestCourse(int courseId) {
+        try {
+            return courseRepository.findLatestById(courseId)
+                    .orElseThrow(() -> new CourseNotFoundException(courseId));
+        } catch (SQLException e) {
+            throw new RuntimeException("Finding course by id failed.", e);
+        }
+    }
 }
@@ -0,0 +1,176 @@
+package service;
+
+import cache.InvalidationBus;
+import config.UnitOfWork;
+import model.CourseGradeSummary;
+import model.Enrollment;
+import repository.EnrollmentRepository;
+import utils.ValidationUtils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class CourseStatsService {
+    private static final CourseStatsService shared = new CourseStatsService();
+
+    static {
+        InvalidationBus.addListener(table -> {
+            if (!table.equals("student")) shared.invalidate();
+        });
+    }
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final Map<Integer, GradeStats> statsByCourse = new ConcurrentHashMap<>();
+    private final Object loadLock = new Object();
+
+    private volatile boolean loaded;
+    private long changes;
+
+    public CourseStatsService() {
+        enrollmentRepository = new EnrollmentRepository();
+    }
+
+    public static CourseStatsService getShared() {
+        return shared;
+    }
+
+    public void recordAdded(List<Enrollment> enrollmentList) {
+        afterCommit(() -> {
+            for (Enrollment enrollment: enrollmentList) {
+                if (enrollment.getGrade() != null) statsFor(enrollment.getCourseId()).add(enrollment.getGrade(), 1);
+            }
+        });
+    }
+
+    // Ungraded enrollments are not in the statistics, so a null grade is skipped on either side.
+    public void recordRemoved(Enrollment enrollment) {
+        if (enrollment.getGrade() == null) return;
+
+        afterCommit(() -> statsFor(enrollment.getCourseId()).remove(enrollment.getGrade()));
+    }
+
+    public void recordRemoved(List<Enrollment> enrollmentList) {
+        for (Enrollment enrollment: enrollmentList) recordRemoved(enrollment);
+    }
+
+    public void recordChanged(int oldCourseId, Integer oldGrade, int newCourseId, Integer newGrade) {
+        afterCommit(() -> {
+            if (oldGrade != null) statsFor(oldCourseId).remove(oldGrade);
+            if (newGrade != null) statsFor(newCourseId).add(newGrade, 1);
+        });
+    }
+
+    public void invalidate() {
+        UnitOfWork.afterCommit(this::clear);
+    }
+
+    public CourseGradeSummary getSummary(int courseId) {
+        ValidationUtils.validateId(courseId);
+
+        GradeStats stats = currentStats().get(courseId);
+
+        return stats == null ? new CourseGradeSummary(courseId, 0, 0, 0, 0, 0) : stats.toSummary(courseId);
+    }
+
+    public List<CourseGradeSummary> findAllSummaries() {
+        Map<Integer, GradeStats> stats = currentStats();
+        List<CourseGradeSummary> summaries = new ArrayList<>(stats.size());
+
+        stats.forEach((courseId, courseStats) -> {
+            if (courseStats.count() > 0) summaries.add(courseStats.toSummary(courseId));
+        });
+
+        summaries.sort(Comparator.comparingInt(CourseGradeSummary::getCourseId));
+
+        return summaries;
+    }
+
+    public List<CourseGradeSummary> findSummariesWithAverageAbove(double minAverage) {
+        List<CourseGradeSummary> summaries = new ArrayList<>();
+
+        currentStats().forEach((courseId, stats) -> {
+            if (stats.count() > 0 && stats.average() > minAverage) summaries.add(stats.toSummary(courseId));
+        });
+
+        summaries.sort(Comparator.comparingInt(CourseGradeSummary::getCourseId));
+
+        return summaries;
+    }
+
+    private GradeStats statsFor(int courseId) {
+        return statsByCourse.computeIfAbsent(courseId, id -> new GradeStats());
+    }
+
+    private void afterCommit(Runnable change) {
+        UnitOfWork.afterCommit(() -> apply(change));
+    }
+
+    private synchronized void apply(Runnable change) {
+        changes++;
+        if (!loaded) return;
+
+        try {
+            change.run();
+        } catch (IllegalStateException e) {
+            System.err.println("Discarding course grade statistics after drift: " + e.getMessage());
+            clear();
+        }
+    }
+
+    private synchronized void clear() {
+        changes++;
+        loaded = false;
+        statsByCourse.clear();
+    }
+
+    private Map<Integer, GradeStats> currentStats() {
+        if (loaded) return statsByCourse;
+
+        synchronized (loadLock) {
+            long loadedChanges;
+
+            synchronized (this) {
+                if (loaded) return statsByCourse;
+                loadedChanges = changes;
+            }
+
+            Map<Integer, GradeStats> loadedStats = load();
+
+            synchronized (this) {
+                // A change recorded while loading may or may not be in the histograms, so they can answer this call but cannot be kept up to date.
+                if (changes != loadedChanges) return loadedStats;
+
+                statsByCourse.clear();
+                statsByCourse.putAll(loadedStats);
+                loaded = true;
+
+                return statsByCourse;
+            }
+        }
+    }
+
+    private Map<Integer, GradeStats> load() {
+        try {
+            Map<Integer, GradeStats> loadedStats = new HashMap<>();
+
+            enrollmentRepository.findGradeHistograms().forEach((courseId, histogram) -> {
+                GradeStats stats = new GradeStats();
+
+                for (int grade = 0; grade < histogram.length; grade++) {
+                    if (histogram[grade] > 0) stats.add(grade, histogram[grade]);
+                }
+
+                loadedStats.put(courseId, stats);
+            });
+
+            return loadedStats;
+        } catch (SQLException e) {
+            throw new RuntimeException("Loading course grade statistics failed.", e);
+        }
+    }
+}
@@ -1,28 +1,66 @@
 package service;
 
+import criteria.CourseCriteria;
+import criteria.Criteria;
+import criteria.StudentCriteria;
+import config.UnitOfWork;
+import exception.CourseFullException;
+import exception.CourseNotFoundException;
 import exception.EnrollmentAlreadyExistsException;
 import exception.EnrollmentNotFoundException;
 import exception.NoEnrollmentsFoundException;
 import model.Course;
 import model.Enrollment;
+import model.EnrollmentUpdate;
 import model.Student;
+import model.UpsertOutcome;
+import repository.CourseRepository;
 import repository.EnrollmentRepository;
+import utils.AsyncUtils;
+import utils.BatchLoader;
+import utils.RetryUtils;
+import utils.TopK;
 import utils.ValidationUtils;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class EnrollmentService {
+    private static final int COPY_THRESHOLD = 1_000;
+    // Matches the SQL ranking: grade desc nulls last, id.
+    private static final Comparator<Enrollment> GRADE_RANKING = Comparator.comparing(Enrollment::getGrade, Comparator.nullsLast(Comparator.<Integer>reverseOrder())).thenComparingInt(Enrollment::getId);
+
     private final EnrollmentRepository enrollmentRepository;
+    private final CourseRepository courseRepository;
+    private final CourseStatsService courseStatsService;
+    private final TranscriptService transcriptService;
 
-    private final List<String> validUpdateKeys = List.of("course_id", "grade");
+    private final List<String> validUpdateKeys = EnrollmentRepository.UPDATABLE_COLUMNS;
 
+    // Transcript upkeep is opt-in: student.gpa is also entered directly on register and update, and
+    // deriving it from this database's enrollments would overwrite those values on the next grade change.
     public EnrollmentService() {
+        this(false);
+    }
+
+    public EnrollmentService(boolean maintainTranscripts) {
         enrollmentRepository = new EnrollmentRepository();
+        courseRepository = new CourseRepository();
+        courseStatsService = CourseStatsService.getShared();
+        transcriptService = maintainTranscripts ? new TranscriptService() : null;
     }
 
     public void registerEnrollment(List<Enrollment> enrollmentList) {
@@ -33,36 +71,93 @@ public class EnrollmentService {
             if (enrollment.isIdSet()) throw new EnrollmentAlreadyExistsException("Enrollment with ID '" + enrollment.getId() + "' already exists.");
         }
 
-        try {
-            enrollmentRepository.create(enrollmentList);
-        } catch (SQLException e) {
-            throw new RuntimeException("Registering enrollment failed.", e);
-        }
+        UnitOfWork.run(() -> {
+            try {
+                reserveSeats(seatsByCourse(enrollmentList));
+
+                if (enrollmentList.size() >= COPY_THRESHOLD) {
+                    enrollmentRepository.copy(enrollmentList);
+                } else {
+                    enrollmentRepository.create(enrollmentList);
+                }
+
+                courseStatsService.recordAdded(enrollmentList);
+            } catch (SQLException e) {
+                throw new RuntimeException("Registering enrollment failed.", e);
+            }
+
+            recomputeTranscripts(enrollmentList);
+        });
+    }
+
+    public List<UpsertOutcome> upsertEnrollments(List<Enrollment> enrollmentList) {
+        return upsertEnrollments(enrollmentList, true);
+    }
+
+    public List<UpsertOutcome> upsertEnrollments(List<Enrollment> enrollmentList, boolean updateExisting) {
+        ValidationUtils.validateCollection(enrollmentList, "enrollmentList");
+
+        for (Enrollment enrollment: enrollmentList) ValidationUtils.validateNotNull(enrollment, "enrollment");
+
+        return UnitOfWork.call(() -> {
+            try {
+                List<UpsertOutcome> outcomes = enrollmentRepository.upsert(enrollmentList, updateExisting);
+                List<Enrollment> inserted = new ArrayList<>();
+                List<Enrollment> changed = new ArrayList<>();
+
+                for (int i = 0; i < outcomes.size(); i++) {
+                    if (outcomes.get(i) == UpsertOutcome.INSERTED) inserted.add(enrollmentList.get(i));
+                    if (outcomes.get(i) != UpsertOutcome.SKIPPED) changed.add(enrollmentList.get(i));
+                }
+
+                reserveSeats(seatsByCourse(inserted));
+
+                if (outcomes.contains(UpsertOutcome.UPDATED)) {
+                    courseStatsService.invalidate();
+                } else {
+                    courseStatsService.recordAdded(inserted);
+                }
+
+                recomputeTranscripts(changed);
+
+                return outcomes;
+            } catch (SQLException e) {
+                throw new RuntimeException("Upserting enrollments failed.", e);
+            }
+        });
+    }
+
+    public void updateEnrollment(int enrollmentId, EnrollmentUpdate update) {
+        ValidationUtils.validateNotNull(update, "update");
+        updateEnrollment(enrollmentId, update.toMap());
     }
 
     public void updateEnrollment(int enrollmentId, Map<String, Object> updateMap) {
         ValidationUtils.validateId(enrollmentId);
-        ValidationUtils.validateMap(updateMap, "updateMap");
-
-        for (String key: updateMap.keySet()) {
-            if (!validUpdateKeys.contains(key)) throw new IllegalArgumentException("Key '" + key + "' is not valid.");
-        }
+        validateUpdateMap(updateMap);
 
-        try {
-            enrollmentRepository.update(enrollmentId, updateMap);
-        } catch (SQLException e) {
-            throw new RuntimeException("Updating enrollment failed.", e);
-        }
+        // The version check and the seat moves only line up when the read happens in the same transaction.
+        RetryUtils.run(() -> UnitOfWork.run(() -> applyUpdate(findLatestEnrollment(enrollmentId), updateMap)));
     }
 
     public void removeEnrollment(int enrollmentId) {
         ValidationUtils.validateId(enrollmentId);
 
-        try {
-            enrollmentRepository.delete(enrollmentId);
-        } catch (SQLException e) {
-            throw new RuntimeException("Removing enrollment failed.", e);
-        }
+        UnitOfWork.run(() -> {
+            List<Enrollment> deleted;
+
+            try {
+                deleted = enrollmentRepository.deleteReturning(new int[] { enrollmentId });
+                if (deleted.isEmpty()) throw new EnrollmentNotFoundException(enrollmentId);
+
+                courseRepository.releaseSeats(seatsByCourse(deleted));
+                courseStatsService.recordRemoved(deleted);
+            } catch (SQLException e) {
+                throw new RuntimeException("Removing enrollment failed.", e);
+            }
+
+            recomputeTranscripts(deleted);
+        });
     }
 
     public Enrollment findEnrollment(int studentId, int courseId) {
@@ -77,6 +172,89 @@ public class EnrollmentService {
         }
     }
 
+    public int updateEnrollments(int[] enrollmentIds, Map<String, Object> updateMap) {
+        ValidationUtils.validateIds(enrollmentIds, "enrollmentIds");
+        validateUpdateMap(updateMap);
+
+        if (enrollmentIds.length == 0) return 0;
+
+        boolean movesCourse = updateMap.containsKey("course_id");
+
+        return UnitOfWork.call(() -> {
+            try {
+                // Seats are released from the course each row is in now, so read and lock the rows in this transaction.
+                List<Enrollment> before = transcriptService == null && !movesCourse ? List.of() : enrollmentRepository.findByIdsForUpdate(enrollmentIds);
+                List<Enrollment> moved = new ArrayList<>();
+
+                if (movesCourse) {
+                    int courseId = intValue(updateMap, "course_id");
+
+                    for (Enrollment enrollment: before) {
+                        if (enrollment.getCourseId() != courseId) moved.add(enrollment);
+                    }
+
+                    if (!moved.isEmpty()) reserveSeats(Map.of(courseId, moved.size()));
+                }
+
+                int rows = enrollmentRepository.updateMany(enrollmentIds, updateMap);
+
+                if (!moved.isEmpty()) courseRepository.releaseSeats(seatsByCourse(moved));
+
+                courseStatsService.invalidate();
+                recomputeTranscripts(before);
+
+                return rows;
+            } catch (SQLException e) {
+                throw new RuntimeException("Updating enrollments failed.", e);
+            }
+        });
+    }
+
+    public int updateGrades(Map<Integer, Integer> gradesByEnrollmentId) {
+        ValidationUtils.validateMap(gradesByEnrollmentId, "gradesByEnrollmentId");
+
+        for (Map.Entry<Integer, Integer> entry: gradesByEnrollmentId.entrySet()) {
+            ValidationUtils.validateNotNull(entry.getKey(), "enrollmentId");
+            ValidationUtils.validateNotNull(entry.getValue(), "grade");
+            ValidationUtils.validateId(entry.getKey());
+            ValidationUtils.validateGrade(entry.getValue());
+        }
+
+        List<Enrollment> before = transcriptService == null ? List.of() : findEnrollmentsByIds(gradesByEnrollmentId.keySet());
+
+        try {
+            int rows = enrollmentRepository.updateGrades(gradesByEnrollmentId);
+
+            courseStatsService.invalidate();
+            recomputeTranscripts(before);
+
+            return rows;
+        } catch (SQLException e) {
+            throw new RuntimeException("Updating enrollment grades failed.", e);
+        }
+    }
+
+    public int removeEnrollments(int[] enrollmentIds) {
+        ValidationUtils.validateIds(enrollmentIds, "enrollmentIds");
+
+        if (enrollmentIds.length == 0) return 0;
+
+        return UnitOfWork.call(() -> {
+            try {
+                List<Enrollment> deleted = enrollmentRepository.deleteReturning(enrollmentIds);
+
+                if (!deleted.isEmpty()) courseRepository.releaseSeats(seatsByCourse(deleted));
+
+                courseStatsService.recordRemoved(deleted);
+                recomputeTranscripts(deleted);
+
+                return deleted.size();
+            } catch (SQLException e) {
+                throw new RuntimeException("Removing enrollments failed.", e);
+            }
+        });
+    }
+
     public Enrollment findEnrollmentById(int enrollmentId) {
         ValidationUtils.validateId(enrollmentId);
 
@@ -88,45 +266,262 @@ public class EnrollmentService {
         }
     }
 
+    public List<Enrollment> findEnrollmentsByIds(Collection<Integer> enrollmentIds) {
+        ValidationUtils.validateNotNull(enrollmentIds, "enrollmentIds");
+
+        for (Integer enrollmentId: enrollmentIds) {
+            ValidationUtils.validateNotNull(enrollmentId, "enrollmentId");
+            ValidationUtils.validateId(enrollmentId);
+        }
+
+        if (enrollmentIds.isEmpty()) return new ArrayList<>();
+
+        try {
+            return enrollmentRepository.findByIds(enrollmentIds);
+        } catch (SQLException e) {
+            throw new RuntimeException("Finding enrollments by ids failed.", e);
+        }
+    }
+
+    public BatchLoader<Integer, Enrollment> newEnrollmentLoader() {
+        return new BatchLoader<>(
+                enrollmentIds -> findEnrollmentsByIds(enrollmentIds).stream().collect(Collectors.toMap(Enrollment::getId, enrollment -> enrollment)),
+                EnrollmentNotFoundException::new
+        );
+    }
+
     public List<Enrollment> findAllEnrollments() {
+        List<Enrollment> enrollments = new ArrayList<>();
+
+        forEachEnrollment(enrollments::add);
+
+        if (enrollments.isEmpty()) throw new NoEnrollmentsFoundException();
+
+        return enrollments;
+    }
+
+    public void forEachEnrollment(Consumer<Enrollment> consumer) {
+        ValidationUtils.validateNotNull(consumer, "consumer");
+
+        try (Stream<Enrollment> enrollments = enrollmentRepository.streamAll()) {
+            enrollments.forEach(consumer);
+        } catch (SQLException e) {
+            throw new RuntimeException("Streaming all enrollments failed.", e);
+        }
+    }
+
+    public List<Enrollment> findAndFilterEnrollments(Predicate<Enrollment> predicate) {
+        ValidationUtils.validateNotNull(predicate, "predicate");
+
+        if (predicate instanceof Criteria<Enrollment> criteria) {
+            try {
+                return enrollmentRepository.findAll(criteria)
+                        .orElseGet(ArrayList::new);
+            } catch (SQLException e) {
+                throw new RuntimeException("Finding enrollments by criteria failed.", e);
+            }
+        }
+
+        return findAllEnrollments()
+                .stream()
+                .filter(predicate)
+                .collect(Collectors.toList());
+    }
+
+    public long countEnrollments(Predicate<Enrollment> predicate) {
+        ValidationUtils.validateNotNull(predicate, "predicate");
+
+        if (predicate instanceof Criteria<Enrollment> criteria) {
+            try {
+                return enrollmentRepository.count(criteria);
+            } catch (SQLException e) {
+                throw new RuntimeException("Counting enrollments failed.", e);
+            }
+        }
+
+        return findAllEnrollments()
+                .stream()
+                .filter(predicate)
+                .count();
+    }
+
+    public Map<Integer, List<Enrollment>> topGradesPerCourse(int k) {
+        if (k < 1) throw new IllegalArgumentException("k must be positive.");
+
         try {
-            return enrollmentRepository.findAll()
-                    .orElseThrow(() -> new NoEnrollmentsFoundException());
+            Map<Integer, List<Enrollment>> topByCourse = new LinkedHashMap<>();
+
+            for (Enrollment enrollment: enrollmentRepository.findTopGradesPerCourse(k)) {
+                topByCourse.computeIfAbsent(enrollment.getCourseId(), courseId -> new ArrayList<>()).add(enrollment);
+            }
+
+            return topByCourse;
         } catch (SQLException e) {
-            throw new RuntimeException("Finding all enrollments failed.", e);
+            throw new RuntimeException("Finding top grades per course failed.", e);
         }
     }
 
+    public Map<Integer, List<Enrollment>> topGradesPerCourse(Collection<Enrollment> enrollments, int k) {
+        ValidationUtils.validateNotNull(enrollments, "enrollments");
+        return TopK.perGroup(enrollments.stream(), Enrollment::getCourseId, k, GRADE_RANKING);
+    }
+
     public List<Integer> getStudentIdsByDepartment(String department) {
-        List<Enrollment> enrollments = findAllEnrollments();
-        List<Course> courses = new CourseService().findAllCourses();
+        List<Course> courses = new CourseService().findAndFilterCourses(CourseCriteria.departmentEquals(department));
 
         Set<Integer> courseIdByDepartmentSet = courses
                 .stream()
-                .filter(course -> course.getDepartment().equals(department))
                 .map(Course::getId)
                 .collect(Collectors.toSet());
 
-        return enrollments
-                .stream()
-                .filter(enrollment -> courseIdByDepartmentSet.contains(enrollment.getCourseId()))
-                .map(Enrollment::getStudentId)
-                .distinct()
-                .collect(Collectors.toList());
+        try (Stream<Enrollment> enrollments = enrollmentRepository.streamAll()) {
+            return enrollments
+                    .filter(enrollment -> courseIdByDepartmentSet.contains(enrollment.getCourseId()))
+                    .map(Enrollment::getStudentId)
+                    .distinct()
+                    .collect(Collectors.toList());
+        } catch (SQLException e) {
+            throw new RuntimeException("Finding student ids by department failed.", e);
+        }
     }
 
     public List<Student> findStudentsByEnrollment(Predicate<Enrollment> filter) {
-        List<Enrollment> enrollments = findAllEnrollments();
-        List<Integer> studentIdList = enrollments
-                .stream()
-                .filter(filter)
-                .map(Enrollment::getStudentId)
-                .distinct()
-                .collect(Collectors.toList());
+        ValidationUtils.validateNotNull(filter, "filter");
 
-        return new StudentService().findAllStudents()
-                .stream()
-                .filter(student -> studentIdList.contains(student.getId()))
-                .collect(Collectors.toList());
+        StudentService studentService = new StudentService();
+
+        if (filter instanceof Criteria<Enrollment> criteria) return studentService.findStudentsByEnrollment(criteria);
+
+        Set<Integer> studentIdSet = new HashSet<>();
+
+        forEachEnrollment(enrollment -> {
+            if (filter.test(enrollment)) studentIdSet.add(enrollment.getStudentId());
+        });
+
+        if (studentIdSet.isEmpty()) return new ArrayList<>();
+
+        return studentService.findAndFilterStudents(StudentCriteria.idIn(studentIdSet));
+    }
+
+    private void validateUpdateMap(Map<String, Object> updateMap) {
+        ValidationUtils.validateMap(updateMap, "updateMap");
+
+        for (String key: updateMap.keySet()) {
+            if (!validUpdateKeys.contains(key)) throw new IllegalArgumentException("Key '" + key + "' is not valid.");
+        }
+
+        // Validated up front so the grade statistics can never reject a change that is already written.
+        if (updateMap.containsKey("course_id")) ValidationUtils.validateId(intValue(updateMap, "course_id"));
+        if (updateMap.containsKey("grade")) ValidationUtils.validateGrade(intValue(updateMap, "grade"));
+    }
+
+    private static int intValue(Map<String, Object> updateMap, String key) {
+        if (!(updateMap.get(key) instanceof Number value)) throw new IllegalArgumentException("Value of '" + key + "' must be a number.");
+        return value.intValue();
+    }
+
+    private Enrollment findLatestEnrollment(int enrollmentId) {
+        try {
+            return enrollmentRepository.findLatestById(enrollmentId)
+                    .orElseThrow(() -> new EnrollmentNotFoundException(enrollmentId));
+        } catch (SQLException e) {
+            throw new RuntimeException("Finding enrollment by id failed.", e);
+        }
+    }
+
+    private void applyUpdate(Enrollment before, Map<String, Object> updateMap) {
+        int enrollmentId = before.getId();
+        int courseId = updateMap.containsKey("course_id") ? intValue(updateMap, "course_id") : before.getCourseId();
+        Integer grade = updateMap.containsKey("grade") ? intValue(updateMap, "grade") : before.getGrade();
+
+        UnitOfWork.run(() -> {
+            try {
+                if (courseId != before.getCourseId()) reserveSeats(Map.of(courseId, 1));
+
+                enrollmentRepository.update(enrollmentId, before.getVersion(), updateMap);
+
+                if (courseId != before.getCourseId()) courseRepository.releaseSeats(Map.of(before.getCourseId(), 1));
+
+                courseStatsService.recordChanged(before.getCourseId(), before.getGrade(), courseId, grade);
+            } catch (SQLException e) {
+                throw new RuntimeException("Updating enrollment failed.", e);
+            }
+
+            recomputeTranscripts(List.of(before));
+        });
+    }
+
+    private void reserveSeats(Map<Integer, Integer> seatsByCourseId) throws SQLException {
+        if (seatsByCourseId.isEmpty()) return;
+
+        List<Integer> rejectedIds = courseRepository.reserveSeats(seatsByCourseId);
+        if (rejectedIds.isEmpty()) return;
+
+        int courseId = rejectedIds.get(0);
+        if (courseRepository.findById(courseId).isEmpty()) throw new CourseNotFoundException(courseId);
+
+        throw new CourseFullException(courseId);
+    }
+
+    private static Map<Integer, Integer> seatsByCourse(Collection<Enrollment> enrollments) {
+        return countByCourse(enrollments.stream().map(Enrollment::getCourseId).toList());
+    }
+
+    private static Map<Integer, Integer> countByCourse(Collection<Integer> courseIds) {
+        Map<Integer, Integer> counts = new HashMap<>();
+
+        for (Integer courseId: courseIds) counts.merge(courseId, 1, Integer::sum);
+
+        return counts;
+    }
+
+    private void recomputeTranscripts(Collection<Enrollment> enrollments) {
+        if (transcriptService == null || enrollments.isEmpty()) return;
+
+        transcriptService.recomputeStudents(enrollments.stream().mapToInt(Enrollment::getStudentId).distinct().toArray());
+    }
+
+    public CompletableFuture<Void> registerEnrollmentAsync(List<Enrollment> enrollmentList) {
+        return AsyncUtils.runAsync(() -> registerEnrollment(enrollmentList));
+    }
+
+    public CompletableFuture<List<UpsertOutcome>> upsertEnrollmentsAsync(List<Enrollment> enrollmentList) {
+        return AsyncUtils.supplyAsync(() -> upsertEnrollments(enrollmentList));
+    }
+
+    public CompletableFuture<Void> updateEnrollmentAsync(int enrollmentId, Map<String, Object> updateMap) {
+        return AsyncUtils.runAsync(() -> updateEnrollment(enrollmentId, updateMap));
+    }
+
+    public CompletableFuture<Void> removeEnrollmentAsync(int enrollmentId) {
+        return AsyncUtils.runAsync(() -> removeEnrollment(enrollmentId));
+    }
+
+    public CompletableFuture<Enrollment> findEnrollmentAsync(int studentId, int courseId) {
+        return AsyncUtils.supplyAsync(() -> findEnrollment(studentId, courseId));
+    }
+
+    public CompletableFuture<Enrollment> findEnrollmentByIdAsync(int enrollmentId) {
+        return AsyncUtils.supplyAsync(() -> findEnrollmentById(enrollmentId));
+    }
+
+    public CompletableFuture<List<Enrollment>> findEnrollmentsByIdsAsync(Collection<Integer> enrollmentIds) {
+        return AsyncUtils.supplyAsync(() -> findEnrollmentsByIds(enrollmentIds));
+    }
+
+    public CompletableFuture<List<Enrollment>> findAllEnrollmentsAsync() {
+        return AsyncUtils.supplyAsync(this::findAllEnrollments);
+    }
+
+    public CompletableFuture<List<Enrollment>> findAndFilterEnrollmentsAsync(Predicate<Enrollment> predicate) {
+        return AsyncUtils.supplyAsync(() -> findAndFilterEnrollments(predicate));
+    }
+
+    public CompletableFuture<Map<Integer, List<Enrollment>>> topGradesPerCourseAsync(int k) {
+        return AsyncUtils.supplyAsync(() -> topGradesPerCourse(k));
+    }
+
+    public CompletableFuture<List<Student>> findStudentsByEnrollmentAsync(Predicate<Enrollment> filter) {
+        return AsyncUtils.supplyAsync(() -> findStudentsByEnrollment(filter));
     }
 }
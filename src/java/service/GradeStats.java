@@ -0,0 +1,48 @@
+package service;
+
+import model.CourseGradeSummary;
+
+class GradeStats {
+    private final long[] histogram = new long[101];
+    private long count;
+    private long sum;
+    private long sumOfSquares;
+
+    synchronized void add(int grade, long occurrences) {
+        histogram[grade] += occurrences;
+        count += occurrences;
+        sum += grade * occurrences;
+        sumOfSquares += (long) grade * grade * occurrences;
+    }
+
+    synchronized void remove(int grade) {
+        if (histogram[grade] == 0) throw new IllegalStateException("No grade " + grade + " left to remove; the statistics have drifted from the database.");
+
+        histogram[grade]--;
+        count--;
+        sum -= grade;
+        sumOfSquares -= (long) grade * grade;
+    }
+
+    synchronized long count() {
+        return count;
+    }
+
+    synchronized double average() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    synchronized CourseGradeSummary toSummary(int courseId) {
+        if (count == 0) return new CourseGradeSummary(courseId, 0, 0, 0, 0, 0);
+
+        double average = (double) sum / count;
+        double variance = Math.max(0, (double) sumOfSquares / count - average * average);
+        int min = 0;
+        int max = histogram.length - 1;
+
+        while (histogram[min] == 0) min++;
+        while (histogram[max] == 0) max--;
+
+        return new CourseGradeSummary(courseId, count, average, Math.sqrt(variance), min, max);
+    }
+}
@@ -1,27 +1,54 @@
 package service;
 
+import criteria.Criteria;
 import exception.NoStudentsFoundException;
 import exception.StudentAlreadyExistsException;
 import exception.StudentNotFoundException;
 import interfaces.StudentFilter;
+import model.Enrollment;
 import model.Student;
+import model.StudentUpdate;
 import repository.StudentRepository;
+import search.StudentNameIndex;
+import utils.AsyncUtils;
+import utils.BatchLoader;
+import utils.RetryUtils;
+import utils.TopK;
 import utils.ValidationUtils;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class StudentService {
+    private static final int COPY_THRESHOLD = 1_000;
+    private static final Comparator<Student> GPA_RANKING = Comparator.comparingDouble(Student::getGpa).reversed().thenComparingInt(Student::getId);
+
     private final StudentRepository studentRepository;
+    private final StudentNameIndex nameIndex;
+    private final boolean useNameIndex;
 
-    private final List<String> validUpdateKeys = List.of("name", "major", "gpa");
+    private final List<String> validUpdateKeys = StudentRepository.UPDATABLE_COLUMNS;
 
     public StudentService() {
+        this(false);
+    }
+
+    public StudentService(boolean useNameIndex) {
         studentRepository = new StudentRepository();
+        nameIndex = StudentNameIndex.getShared();
+        this.useNameIndex = useNameIndex;
     }
 
     public void registerStudents(List<Student> studentList) {
@@ -33,10 +60,21 @@ public class StudentService {
         }
 
         try {
-            studentRepository.create(studentList);
+            if (studentList.size() >= COPY_THRESHOLD) {
+                studentRepository.copy(studentList);
+            } else {
+                studentRepository.create(studentList);
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Registering students failed.", e);
         }
+
+        nameIndex.recordAdded(studentList);
+    }
+
+    public void updateStudent(int studentId, StudentUpdate update) {
+        ValidationUtils.validateNotNull(update, "update");
+        updateStudent(studentId, update.toMap());
     }
 
     public void updateStudent(int studentId, Map<String, Object> updateMap) {
@@ -47,11 +85,38 @@ public class StudentService {
             if (!validUpdateKeys.contains(key)) throw new IllegalArgumentException("Key '" + key + "' is not valid.");
         }
 
+        updateStudent(studentId, current -> updateMap);
+    }
+
+    public int updateStudent(int studentId, int expectedVersion, Map<String, Object> updateMap) {
+        ValidationUtils.validateId(studentId);
+        ValidationUtils.validateMap(updateMap, "updateMap");
+
+        for (String key: updateMap.keySet()) {
+            if (!validUpdateKeys.contains(key)) throw new IllegalArgumentException("Key '" + key + "' is not valid.");
+        }
+
+        int version;
+
         try {
-            studentRepository.update(studentId, updateMap);
+            version = studentRepository.update(studentId, expectedVersion, updateMap);
         } catch (SQLException e) {
             throw new RuntimeException("Updating student failed.", e);
         }
+
+        if (updateMap.containsKey("name")) nameIndex.recordRenamed(studentId, (String) updateMap.get("name"));
+
+        return version;
+    }
+
+    public int updateStudent(int studentId, Function<Student, Map<String, Object>> change) {
+        ValidationUtils.validateId(studentId);
+        ValidationUtils.validateNotNull(change, "change");
+
+        return RetryUtils.call(() -> {
+            Student current = findLatestStudent(studentId);
+            return updateStudent(studentId, current.getVersion(), change.apply(current));
+        });
     }
 
     public void removeStudent(int studentId) {
@@ -62,6 +127,51 @@ public class StudentService {
         } catch (SQLException e) {
             throw new RuntimeException("Removing student failed.", e);
         }
+
+        nameIndex.recordRemoved(studentId);
+    }
+
+    public int updateStudents(int[] studentIds, Map<String, Object> updateMap) {
+        ValidationUtils.validateIds(studentIds, "studentIds");
+        ValidationUtils.validateMap(updateMap, "updateMap");
+
+        for (String key: updateMap.keySet()) {
+            if (!validUpdateKeys.contains(key)) throw new IllegalArgumentException("Key '" + key + "' is not valid.");
+        }
+
+        if (studentIds.length == 0) return 0;
+
+        int rows;
+
+        try {
+            rows = studentRepository.updateMany(studentIds, updateMap);
+        } catch (SQLException e) {
+            throw new RuntimeException("Updating students failed.", e);
+        }
+
+        if (updateMap.containsKey("name")) {
+            for (int studentId: studentIds) nameIndex.recordRenamed(studentId, (String) updateMap.get("name"));
+        }
+
+        return rows;
+    }
+
+    public int removeStudents(int[] studentIds) {
+        ValidationUtils.validateIds(studentIds, "studentIds");
+
+        if (studentIds.length == 0) return 0;
+
+        int rows;
+
+        try {
+            rows = studentRepository.deleteByIds(studentIds);
+        } catch (SQLException e) {
+            throw new RuntimeException("Removing students failed.", e);
+        }
+
+        nameIndex.recordRemoved(studentIds);
+
+        return rows;
     }
 
     public Student findStudentById(int studentId) {
@@ -75,6 +185,30 @@ public class StudentService {
         }
     }
 
+    public List<Student> findStudentsByIds(Collection<Integer> studentIds) {
+        ValidationUtils.validateNotNull(studentIds, "studentIds");
+
+        for (Integer studentId: studentIds) {
+            ValidationUtils.validateNotNull(studentId, "studentId");
+            ValidationUtils.validateId(studentId);
+        }
+
+        if (studentIds.isEmpty()) return new ArrayList<>();
+
+        try {
+            return studentRepository.findByIds(studentIds);
+        } catch (SQLException e) {
+            throw new RuntimeException("Finding students by ids failed.", e);
+        }
+    }
+
+    public BatchLoader<Integer, Student> newStudentLoader() {
+        return new BatchLoader<>(
+                studentIds -> findStudentsByIds(studentIds).stream().collect(Collectors.toMap(Student::getId, student -> student)),
+                StudentNotFoundException::new
+        );
+    }
+
     public List<Student> findAllStudents() {
         try {
             return studentRepository.findAll()
@@ -84,6 +218,60 @@ public class StudentService {
         }
     }
 
+    public void forEachStudent(Consumer<Student> consumer) {
+        ValidationUtils.validateNotNull(consumer, "consumer");
+
+        try (Stream<Student> students = studentRepository.streamAll()) {
+            students.forEach(consumer);
+        } catch (SQLException e) {
+            throw new RuntimeException("Streaming all students failed.", e);
+        }
+    }
+
+    public List<Student> searchByName(String query, int limit) {
+        ValidationUtils.validateString(query, "query");
+        if (limit < 1) throw new IllegalArgumentException("limit must be positive.");
+
+        if (useNameIndex) {
+            List<Integer> studentIds = nameIndex.search(query, limit);
+            Map<Integer, Student> studentsById = findStudentsByIds(studentIds)
+                    .stream()
+                    .collect(Collectors.toMap(Student::getId, student -> student));
+
+            return studentIds.stream()
+                    .map(studentsById::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        try {
+            return studentRepository.searchByName(query.trim(), limit);
+        } catch (SQLException e) {
+            throw new RuntimeException("Searching students by name failed.", e);
+        }
+    }
+
+    public Map<String, List<Student>> topByGpaPerMajor(int k) {
+        if (k < 1) throw new IllegalArgumentException("k must be positive.");
+
+        try {
+            Map<String, List<Student>> topByMajor = new LinkedHashMap<>();
+
+            for (Student student: studentRepository.findTopByGpaPerMajor(k)) {
+                topByMajor.computeIfAbsent(student.getMajor(), major -> new ArrayList<>()).add(student);
+            }
+
+            return topByMajor;
+        } catch (SQLException e) {
+            throw new RuntimeException("Finding top students by gpa per major failed.", e);
+        }
+    }
+
+    public Map<String, List<Student>> topByGpaPerMajor(Collection<Student> students, int k) {
+        ValidationUtils.validateNotNull(students, "students");
+        return TopK.perGroup(students.stream(), Student::getMajor, k, GPA_RANKING);
+    }
+
     public List<Student> findAndFilterStudents(StudentFilter filter) {
         return findAllStudents()
                 .stream()
@@ -91,10 +279,91 @@ public class StudentService {
                 .collect(Collectors.toList());
     }
 
+    public List<Student> findAndFilterStudents(Criteria<Student> criteria) {
+        ValidationUtils.validateNotNull(criteria, "criteria");
+
+        try {
+            return studentRepository.findAll(criteria)
+                    .orElseGet(ArrayList::new);
+        } catch (SQLException e) {
+            throw new RuntimeException("Finding students by criteria failed.", e);
+        }
+    }
+
+    public List<Student> findStudentsByEnrollment(Criteria<Enrollment> criteria) {
+        ValidationUtils.validateNotNull(criteria, "criteria");
+
+        try {
+            return studentRepository.findByEnrollment(criteria)
+                    .orElseGet(ArrayList::new);
+        } catch (SQLException e) {
+            throw new RuntimeException("Finding students by enrollment failed.", e);
+        }
+    }
+
     public long countStudents(Predicate<Student> predicate) {
+        ValidationUtils.validateNotNull(predicate, "predicate");
+
+        if (predicate instanceof Criteria<Student> criteria) {
+            try {
+                return studentRepository.count(criteria);
+            } catch (SQLException e) {
+                throw new RuntimeException("Counting students failed.", e);
+            }
+        }
+
         return findAllStudents()
                 .stream()
                 .filter(predicate)
                 .count();
     }
+
+    public CompletableFuture<Void> registerStudentsAsync(List<Student> studentList) {
+        return AsyncUtils.runAsync(() -> registerStudents(studentList));
+    }
+
+    public CompletableFuture<Void> updateStudentAsync(int studentId, Map<String, Object> updateMap) {
+        return AsyncUtils.runAsync(() -> updateStudent(studentId, updateMap));
+    }
+
+    public CompletableFuture<Void> removeStudentAsync(int studentId) {
+        return AsyncUtils.runAsync(() -> removeStudent(studentId));
+    }
+
+    public CompletableFuture<Student> findStudentByIdAsync(int studentId) {
+        return AsyncUtils.supplyAsync(() -> findStudentById(studentId));
+    }
+
+    public CompletableFuture<List<Student>> findStudentsByIdsAsync(Collection<Integer> studentIds) {
+        return AsyncUtils.supplyAsync(() -> findStudentsByIds(studentIds));
+    }
+
+    public CompletableFuture<List<Student>> findAllStudentsAsync() {
+        return AsyncUtils.supplyAsync(this::findAllStudents);
+    }
+
+    public CompletableFuture<List<Student>> findAndFilterStudentsAsync(Criteria<Student> criteria) {
+        return AsyncUtils.supplyAsync(() -> findAndFilterStudents(criteria));
+    }
+
+    public CompletableFuture<List<Student>> searchByNameAsync(String query, int limit) {
+        return AsyncUtils.supplyAsync(() -> searchByName(query, limit));
+    }
+
+    public CompletableFuture<Map<String, List<Student>>> topByGpaPerMajorAsync(int k) {
+        return AsyncUtils.supplyAsync(() -> topByGpaPerMajor(k));
+    }
+
+    public CompletableFuture<Long> countStudentsAsync(Predicate<Student> predicate) {
+        return AsyncUtils.supplyAsync(() -> countStudents(predicate));
+    }
+
+    private Student findLatestStudent(int studentId) {
+        try {
+            return studentRepository.findLatestById(studentId)
+                    .orElseThrow(() -> new StudentNotFoundException(studentId));
+        } catch (SQLException e) {
+            throw new RuntimeException("Finding student by id failed.", e);
+        }
+    }
 }
@@ -0,0 +1,148 @@
+package service;
+
+import analytics.AnalyticsDataset;
+import config.UnitOfWork;
+import repository.StudentRepository;
+import utils.AsyncUtils;
+import utils.GradePoints;
+import utils.ValidationUtils;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+public class TranscriptService {
+    private final StudentRepository studentRepository;
+
+    public TranscriptService() {
+        studentRepository = new StudentRepository();
+    }
+
+    public OptionalDouble computeGpa(int studentId) {
+        ValidationUtils.validateId(studentId);
+
+        try {
+            return studentRepository.computeTranscriptGpa(studentId);
+        } catch (SQLException e) {
+            throw new RuntimeException("Computing transcript gpa failed.", e);
+        }
+    }
+
+    public int recomputeStudent(int studentId) {
+        ValidationUtils.validateId(studentId);
+        return recomputeStudents(new int[] { studentId });
+    }
+
+    public int recomputeStudents(int[] studentIds) {
+        ValidationUtils.validateIds(studentIds, "studentIds");
+
+        if (studentIds.length == 0) return 0;
+
+        try {
+            return studentRepository.recomputeGpas(studentIds);
+        } catch (SQLException e) {
+            throw new RuntimeException("Recomputing student gpas failed.", e);
+        }
+    }
+
+    public int recomputeAll() {
+        try {
+            return studentRepository.recomputeAllGpas();
+        } catch (SQLException e) {
+            throw new RuntimeException("Recomputing all student gpas failed.", e);
+        }
+    }
+
+    public int recomputeAllInMemory() {
+        return UnitOfWork.call(() -> {
+            try {
+                AnalyticsDataset dataset = AnalyticsDataset.load();
+                int[] studentIds = dataset.getStudentIds();
+                double[] storedGpas = dataset.getStudentGpas();
+                double[] gpas = computeGpas(dataset);
+
+                Map<Integer, Double> changedGpas = new HashMap<>();
+
+                for (int i = 0; i < studentIds.length; i++) {
+                    if (!Double.isNaN(gpas[i]) && gpas[i] != storedGpas[i]) changedGpas.put(studentIds[i], gpas[i]);
+                }
+
+                if (changedGpas.isEmpty()) return 0;
+
+                return studentRepository.updateGpas(changedGpas);
+            } catch (SQLException e) {
+                throw new RuntimeException("Recomputing all student gpas in memory failed.", e);
+            }
+        });
+    }
+
+    // Students without graded credits get NaN, since they have no GPA to derive.
+    public static double[] computeGpas(AnalyticsDataset dataset) {
+        ValidationUtils.validateNotNull(dataset, "dataset");
+
+        int[] studentIds = dataset.getStudentIds();
+        int[] enrollmentStudentIds = dataset.getEnrollmentStudentIds();
+        int[] enrollmentCourseIds = dataset.getEnrollmentCourseIds();
+        byte[] enrollmentGrades = dataset.getEnrollmentGrades();
+        int[] creditsByCourseId = dataset.getCreditsByCourseId();
+
+        int maxStudentId = 0;
+        for (int studentId: studentIds) maxStudentId = Math.max(maxStudentId, studentId);
+
+        int[] indexByStudentId = new int[maxStudentId + 1];
+        Arrays.fill(indexByStudentId, -1);
+        for (int i = 0; i < studentIds.length; i++) indexByStudentId[studentIds[i]] = i;
+
+        int[] offsets = new int[studentIds.length + 1];
+
+        for (int studentId: enrollmentStudentIds) {
+            int index = studentId <= maxStudentId ? indexByStudentId[studentId] : -1;
+            if (index >= 0) offsets[index + 1]++;
+        }
+
+        for (int i = 0; i < studentIds.length; i++) offsets[i + 1] += offsets[i];
+
+        int[] cursor = Arrays.copyOf(offsets, studentIds.length);
+        int[] enrollmentsByStudent = new int[offsets[studentIds.length]];
+
+        for (int e = 0; e < enrollmentStudentIds.length; e++) {
+            int studentId = enrollmentStudentIds[e];
+            int index = studentId <= maxStudentId ? indexByStudentId[studentId] : -1;
+            if (index >= 0) enrollmentsByStudent[cursor[index]++] = e;
+        }
+
+        double[] gpas = new double[studentIds.length];
+
+        IntStream.range(0, studentIds.length).parallel().forEach(i -> {
+            double points = 0;
+            long credits = 0;
+
+            for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                int e = enrollmentsByStudent[j];
+                if (enrollmentGrades[e] == AnalyticsDataset.NO_GRADE) continue;
+
+                int courseId = enrollmentCourseIds[e];
+                int courseCredits = courseId >= 0 && courseId < creditsByCourseId.length ? creditsByCourseId[courseId] : 0;
+
+                points += GradePoints.of(enrollmentGrades[e]) * courseCredits;
+                credits += courseCredits;
+            }
+
+            gpas[i] = credits == 0 ? Double.NaN : GradePoints.round(points / credits);
+        });
+
+        return gpas;
+    }
+
+    public CompletableFuture<OptionalDouble> computeGpaAsync(int studentId) {
+        return AsyncUtils.supplyAsync(() -> computeGpa(studentId));
+    }
+
+    public CompletableFuture<Integer> recomputeAllAsync() {
+        return AsyncUtils.supplyAsync(this::recomputeAll);
+    }
+}
@@ -0,0 +1,71 @@
+package snapshot;
+
+import config.DBConnection;
+import config.UnitOfWork;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class SnapshotExporter {
+    public static SnapshotInfo export(Path path) throws SQLException, IOException {
+        boolean ownTransaction = !UnitOfWork.isActive();
+
+        try (
+                Connection conn = DBConnection.getReadConnection();
+                SnapshotWriter writer = new SnapshotWriter(path)
+        ) {
+            // One repeatable-read transaction so the three tables are exported from the same point in time.
+            if (ownTransaction) {
+                conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                conn.setAutoCommit(false);
+                conn.setReadOnly(true);
+            }
+
+            try {
+                try (ResultSet rs = query(conn, "select id, name, major, year, gpa from student order by id")) {
+                    while (rs.next()) {
+                        writer.writeStudent(rs.getInt("id"), rs.getString("name"), rs.getString("major"), rs.getInt("year"), rs.getDouble("gpa"));
+                    }
+                }
+
+                try (ResultSet rs = query(conn, "select id, title, department, credits, capacity from course order by id")) {
+                    while (rs.next()) {
+                        writer.writeCourse(rs.getInt("id"), rs.getString("title"), rs.getString("department"), rs.getInt("credits"), rs.getObject("capacity", Integer.class));
+                    }
+                }
+
+                try (ResultSet rs = query(conn, "select id, student_id, course_id, enrollment_date, grade from enrollment order by id")) {
+                    while (rs.next()) {
+                        Date date = rs.getDate("enrollment_date");
+                        writer.writeEnrollment(rs.getInt("id"), rs.getInt("student_id"), rs.getInt("course_id"), date == null ? null : date.toLocalDate(), rs.getObject("grade", Integer.class));
+                    }
+                }
+
+                if (ownTransaction) conn.commit();
+            } finally {
+                if (ownTransaction) {
+                    conn.setAutoCommit(true);
+                    conn.setReadOnly(false);
+                    conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+                }
+            }
+
+            return writer.finish();
+        } catch (SQLException e) {
+            throw new SQLException("Exporting snapshot failed!", e);
+        }
+    }
+
+    private static ResultSet query(Connection conn, String sqlQuery) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sqlQuery, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(DBConnection.DEFAULT_FETCH_SIZE);
+        ps.closeOnCompletion();
+
+        return ps.executeQuery();
+    }
+}
@@ -0,0 +1,28 @@
+package snapshot;
+
+final class SnapshotFormat {
+    static final int MAGIC = 0x53434D53;
+    static final short VERSION = 3;
+    // Version 1 files have no course capacity; versions before 3 cannot hold a NULL enrollment date or grade.
+    static final short MIN_VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+    static final int TRAILER_SIZE = 16;
+    static final int SECTION_ENTRY_SIZE = 25;
+
+    static final byte STUDENT_SECTION = 1;
+    static final byte COURSE_SECTION = 2;
+    static final byte ENROLLMENT_SECTION = 3;
+    static final byte DICTIONARY_SECTION = 4;
+
+    private SnapshotFormat() {
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
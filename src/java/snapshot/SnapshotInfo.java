@@ -0,0 +1,45 @@
+package snapshot;
+
+import java.time.Instant;
+
+public class SnapshotInfo {
+    private final Instant createdAt;
+    private final long studentCount;
+    private final long courseCount;
+    private final long enrollmentCount;
+    private final long sizeBytes;
+
+    public SnapshotInfo(Instant createdAt, long studentCount, long courseCount, long enrollmentCount, long sizeBytes) {
+        this.createdAt = createdAt;
+        this.studentCount = studentCount;
+        this.courseCount = courseCount;
+        this.enrollmentCount = enrollmentCount;
+        this.sizeBytes = sizeBytes;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getStudentCount() {
+        return studentCount;
+    }
+
+    public long getCourseCount() {
+        return courseCount;
+    }
+
+    public long getEnrollmentCount() {
+        return enrollmentCount;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "Created At: " + createdAt + "\nStudents: " + studentCount + "\nCourses: " + courseCount +
+                "\nEnrollments: " + enrollmentCount + "\nSize (bytes): " + sizeBytes;
+    }
+}
@@ -0,0 +1,231 @@
+package snapshot;
+
+import interfaces.ThrowingConsumer;
+import model.Course;
+import model.Enrollment;
+import model.Student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+public class SnapshotReader implements AutoCloseable {
+    private static final int CHECKSUM_CHUNK_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private final short version;
+    private final Instant createdAt;
+    private final Map<Byte, long[]> sections = new HashMap<>();
+    private final String[] dictionary;
+
+    private SnapshotReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            size = channel.size();
+
+            if (size < SnapshotFormat.HEADER_SIZE + SnapshotFormat.TRAILER_SIZE)
+                throw new IOException("Snapshot file '" + path + "' is truncated.");
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, SnapshotFormat.HEADER_SIZE);
+
+            if (header.getInt() != SnapshotFormat.MAGIC)
+                throw new IOException("File '" + path + "' is not a snapshot.");
+
+            version = header.getShort();
+
+            if (version < SnapshotFormat.MIN_VERSION || version > SnapshotFormat.VERSION)
+                throw new IOException("Snapshot version " + version + " is not supported.");
+
+            header.getShort();
+            createdAt = Instant.ofEpochMilli(header.getLong());
+
+            ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - SnapshotFormat.TRAILER_SIZE, SnapshotFormat.TRAILER_SIZE);
+            long footerOffset = trailer.getLong();
+            int checksum = trailer.getInt();
+
+            if (trailer.getInt() != SnapshotFormat.MAGIC)
+                throw new IOException("Snapshot file '" + path + "' is truncated.");
+
+            if (checksum != checksum(size - 8))
+                throw new IOException("Snapshot file '" + path + "' is corrupt: checksum mismatch.");
+
+            ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, footerOffset, size - SnapshotFormat.TRAILER_SIZE - footerOffset);
+            int sectionCount = footer.get();
+
+            for (int i = 0; i < sectionCount; i++) {
+                sections.put(footer.get(), new long[] { footer.getLong(), footer.getLong(), footer.getLong() });
+            }
+
+            dictionary = readDictionary();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static SnapshotReader open(Path path) throws IOException {
+        return new SnapshotReader(path);
+    }
+
+    public SnapshotInfo info() {
+        return new SnapshotInfo(
+                createdAt,
+                countOf(SnapshotFormat.STUDENT_SECTION),
+                countOf(SnapshotFormat.COURSE_SECTION),
+                countOf(SnapshotFormat.ENROLLMENT_SECTION),
+                size
+        );
+    }
+
+    public <E extends Exception> void forEachStudent(ThrowingConsumer<Student, E> consumer) throws IOException, E {
+        ByteBuffer section = map(SnapshotFormat.STUDENT_SECTION);
+        long count = countOf(SnapshotFormat.STUDENT_SECTION);
+        int id = 0;
+
+        for (long i = 0; i < count; i++) {
+            id += SnapshotFormat.unzigzag(getVarint(section));
+
+            String name = string(getVarint(section));
+            String major = string(getVarint(section));
+            int year = SnapshotFormat.unzigzag(getVarint(section));
+            double gpa = section.getDouble();
+
+            Student student = new Student(name, major, year, gpa);
+            student.setId(id);
+
+            consumer.accept(student);
+        }
+    }
+
+    public <E extends Exception> void forEachCourse(ThrowingConsumer<Course, E> consumer) throws IOException, E {
+        ByteBuffer section = map(SnapshotFormat.COURSE_SECTION);
+        long count = countOf(SnapshotFormat.COURSE_SECTION);
+        int id = 0;
+
+        for (long i = 0; i < count; i++) {
+            id += SnapshotFormat.unzigzag(getVarint(section));
+
+            String title = string(getVarint(section));
+            String department = string(getVarint(section));
+            int credits = SnapshotFormat.unzigzag(getVarint(section));
+            int capacity = version >= 2 ? getVarint(section) : 0;
+
+            Course course = new Course(title, department, credits, capacity == 0 ? null : capacity - 1);
+            course.setId(id);
+
+            consumer.accept(course);
+        }
+    }
+
+    public <E extends Exception> void forEachEnrollment(ThrowingConsumer<Enrollment, E> consumer) throws IOException, E {
+        ByteBuffer section = map(SnapshotFormat.ENROLLMENT_SECTION);
+        long count = countOf(SnapshotFormat.ENROLLMENT_SECTION);
+        int id = 0;
+
+        for (long i = 0; i < count; i++) {
+            id += SnapshotFormat.unzigzag(getVarint(section));
+
+            int studentId = SnapshotFormat.unzigzag(getVarint(section));
+            int courseId = SnapshotFormat.unzigzag(getVarint(section));
+            LocalDate date;
+            Integer grade;
+
+            if (version >= 3) {
+                int day = getVarint(section);
+                int gradeValue = getVarint(section);
+
+                date = day == 0 ? null : LocalDate.ofEpochDay(SnapshotFormat.unzigzag(day - 1));
+                grade = gradeValue == 0 ? null : SnapshotFormat.unzigzag(gradeValue - 1);
+            } else {
+                date = LocalDate.ofEpochDay(SnapshotFormat.unzigzag(getVarint(section)));
+                grade = SnapshotFormat.unzigzag(getVarint(section));
+            }
+
+            Enrollment enrollment = new Enrollment(studentId, courseId, grade, date);
+            enrollment.setId(id);
+
+            consumer.accept(enrollment);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long countOf(byte section) {
+        long[] entry = sections.get(section);
+        return entry == null ? 0 : entry[2];
+    }
+
+    private ByteBuffer map(byte section) throws IOException {
+        long[] entry = sections.get(section);
+        if (entry == null) return ByteBuffer.allocate(0);
+
+        if (entry[1] > Integer.MAX_VALUE) throw new IOException("Snapshot section " + section + " is too large to map.");
+
+        return channel.map(FileChannel.MapMode.READ_ONLY, entry[0], entry[1]);
+    }
+
+    private String[] readDictionary() throws IOException {
+        ByteBuffer section = map(SnapshotFormat.DICTIONARY_SECTION);
+        if (!section.hasRemaining()) return new String[0];
+
+        String[] entries = new String[getVarint(section)];
+
+        for (int i = 0; i < entries.length; i++) {
+            byte[] bytes = new byte[getVarint(section)];
+            section.get(bytes);
+            entries[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        return entries;
+    }
+
+    private String string(int reference) {
+        return reference == 0 ? null : dictionary[reference - 1];
+    }
+
+    private int checksum(long length) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer chunk = ByteBuffer.allocateDirect(CHECKSUM_CHUNK_SIZE);
+        long position = 0;
+
+        while (position < length) {
+            chunk.clear().limit((int) Math.min(CHECKSUM_CHUNK_SIZE, length - position));
+
+            int read = channel.read(chunk, position);
+            if (read < 0) throw new IOException("Snapshot file ended unexpectedly.");
+
+            chunk.flip();
+            crc.update(chunk);
+            position += read;
+        }
+
+        return (int) crc.getValue();
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return value;
+    }
+}
@@ -0,0 +1,74 @@
+package snapshot;
+
+import cache.EntityCaches;
+import cache.InvalidationBus;
+import config.DBConnection;
+import search.StudentNameIndex;
+import service.CourseStatsService;
+import utils.CsvCopyWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+public class SnapshotRestorer {
+    private static final List<String> TABLES = List.of("student", "course", "enrollment");
+
+    public static SnapshotInfo restore(Path path) throws SQLException, IOException {
+        try (
+                SnapshotReader reader = SnapshotReader.open(path);
+                Connection conn = DBConnection.getConnection()
+        ) {
+            conn.setAutoCommit(false);
+
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("truncate table student, course, enrollment restart identity cascade");
+                }
+
+                try (CsvCopyWriter writer = new CsvCopyWriter(conn, "copy student (id, name, major, year, gpa) from stdin with (format csv)")) {
+                    reader.forEachStudent(s -> writer.writeRow(s.getId(), s.getName(), s.getMajor(), s.getYear(), s.getGpa()));
+                    writer.finish();
+                }
+
+                try (CsvCopyWriter writer = new CsvCopyWriter(conn, "copy course (id, title, department, credits, capacity) from stdin with (format csv)")) {
+                    reader.forEachCourse(course -> writer.writeRow(course.getId(), course.getTitle(), course.getDepartment(), course.getCredits(), course.getCapacity()));
+                    writer.finish();
+                }
+
+                try (CsvCopyWriter writer = new CsvCopyWriter(conn, "copy enrollment (id, student_id, course_id, enrollment_date, grade) from stdin with (format csv)")) {
+                    reader.forEachEnrollment(enrollment -> writer.writeRow(enrollment.getId(), enrollment.getStudentId(), enrollment.getCourseId(), enrollment.getDate(), enrollment.getGrade()));
+                    writer.finish();
+                }
+
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("update course c set seats_taken = (select count(*) from enrollment e where e.course_id = c.id)");
+
+                    for (String table: TABLES) {
+                        stmt.executeQuery("select setval(pg_get_serial_sequence('" + table + "', 'id'), coalesce(max(id), 0) + 1, false) from " + table).close();
+                    }
+                }
+
+                for (String table: TABLES) InvalidationBus.publishAll(conn, table);
+
+                conn.commit();
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            EntityCaches.invalidateAll();
+            CourseStatsService.getShared().invalidate();
+            StudentNameIndex.getShared().invalidate();
+
+            return reader.info();
+        } catch (SQLException e) {
+            throw new SQLException("Restoring snapshot failed!", e);
+        }
+    }
+}
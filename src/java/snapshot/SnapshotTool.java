@@ -0,0 +1,30 @@
+package snapshot;
+
+import java.nio.file.Path;
+
+public class SnapshotTool {
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.out.println("Usage: SnapshotTool export|restore|info <file>");
+            return;
+        }
+
+        Path path = Path.of(args[1]);
+        long start = System.nanoTime();
+        SnapshotInfo info;
+
+        switch (args[0]) {
+            case "export" -> info = SnapshotExporter.export(path);
+            case "restore" -> info = SnapshotRestorer.restore(path);
+            case "info" -> {
+                try (SnapshotReader reader = SnapshotReader.open(path)) {
+                    info = reader.info();
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown command '" + args[0] + "'.");
+        }
+
+        System.out.println(info);
+        System.out.println("Elapsed (ms): " + (System.nanoTime() - start) / 1_000_000);
+    }
+}
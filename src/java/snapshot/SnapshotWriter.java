@@ -0,0 +1,246 @@
+package snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+public class SnapshotWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_RECORD_SIZE = 64;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final long createdMillis = System.currentTimeMillis();
+    private final short version;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> dictionaryEntries = new ArrayList<>();
+    private final Map<Byte, long[]> sections = new LinkedHashMap<>();
+
+    private long channelPosition;
+    private byte currentSection;
+    private long sectionStart;
+    private long sectionCount;
+    private int previousId;
+    private boolean finished;
+
+    public SnapshotWriter(Path path) throws IOException {
+        this(path, SnapshotFormat.VERSION);
+    }
+
+    SnapshotWriter(Path path, short version) throws IOException {
+        if (version < SnapshotFormat.MIN_VERSION || version > SnapshotFormat.VERSION)
+            throw new IllegalArgumentException("Snapshot version " + version + " is not supported.");
+
+        this.version = version;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+        buffer.putInt(SnapshotFormat.MAGIC);
+        buffer.putShort(version);
+        buffer.putShort((short) 0);
+        buffer.putLong(createdMillis);
+    }
+
+    public void writeStudent(int id, String name, String major, int year, double gpa) throws IOException {
+        startRecord(SnapshotFormat.STUDENT_SECTION);
+
+        putId(id);
+        putVarint(reference(name));
+        putVarint(reference(major));
+        putVarint(SnapshotFormat.zigzag(year));
+        buffer.putDouble(gpa);
+    }
+
+    public void writeCourse(int id, String title, String department, int credits, Integer capacity) throws IOException {
+        startRecord(SnapshotFormat.COURSE_SECTION);
+
+        putId(id);
+        putVarint(reference(title));
+        putVarint(reference(department));
+        putVarint(SnapshotFormat.zigzag(credits));
+        if (version >= 2) putVarint(capacity == null ? 0 : capacity + 1);
+    }
+
+    public void writeEnrollment(int id, int studentId, int courseId, LocalDate date, Integer grade) throws IOException {
+        if (version < 3 && (date == null || grade == null))
+            throw new IllegalArgumentException("Snapshot version " + version + " cannot store an enrollment without a date or grade.");
+
+        startRecord(SnapshotFormat.ENROLLMENT_SECTION);
+
+        putId(id);
+        putVarint(SnapshotFormat.zigzag(studentId));
+        putVarint(SnapshotFormat.zigzag(courseId));
+
+        if (version >= 3) {
+            putVarint(date == null ? 0 : SnapshotFormat.zigzag((int) date.toEpochDay()) + 1);
+            putVarint(grade == null ? 0 : SnapshotFormat.zigzag(grade) + 1);
+        } else {
+            putVarint(SnapshotFormat.zigzag((int) date.toEpochDay()));
+            putVarint(SnapshotFormat.zigzag(grade));
+        }
+    }
+
+    public SnapshotInfo finish() throws IOException {
+        if (finished) throw new IllegalStateException("Snapshot is already finished.");
+
+        endSection();
+
+        // Strings are only known once every row is written, so the dictionary goes after the tables.
+        beginSection(SnapshotFormat.DICTIONARY_SECTION);
+        ensure(5);
+        putVarint(dictionaryEntries.size());
+
+        for (String entry: dictionaryEntries) {
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+
+            ensure(5);
+            putVarint(bytes.length);
+            putBytes(bytes);
+        }
+
+        sectionCount = dictionaryEntries.size();
+        endSection();
+
+        long footerOffset = position();
+
+        ensure(1 + sections.size() * SnapshotFormat.SECTION_ENTRY_SIZE + 8);
+        buffer.put((byte) sections.size());
+
+        for (Map.Entry<Byte, long[]> section: sections.entrySet()) {
+            buffer.put(section.getKey());
+            buffer.putLong(section.getValue()[0]);
+            buffer.putLong(section.getValue()[1]);
+            buffer.putLong(section.getValue()[2]);
+        }
+
+        buffer.putLong(footerOffset);
+        flush();
+
+        buffer.putInt((int) crc.getValue());
+        buffer.putInt(SnapshotFormat.MAGIC);
+        flush();
+
+        channel.force(false);
+        finished = true;
+
+        return new SnapshotInfo(
+                Instant.ofEpochMilli(createdMillis),
+                countOf(SnapshotFormat.STUDENT_SECTION),
+                countOf(SnapshotFormat.COURSE_SECTION),
+                countOf(SnapshotFormat.ENROLLMENT_SECTION),
+                channelPosition
+        );
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void startRecord(byte section) throws IOException {
+        if (finished) throw new IllegalStateException("Snapshot is already finished.");
+
+        if (section != currentSection) {
+            if (section < currentSection) throw new IllegalStateException("Snapshot sections must be written in order.");
+
+            endSection();
+            beginSection(section);
+        }
+
+        ensure(MAX_RECORD_SIZE);
+        sectionCount++;
+    }
+
+    private void beginSection(byte section) {
+        currentSection = section;
+        sectionStart = position();
+        sectionCount = 0;
+        previousId = 0;
+    }
+
+    private void endSection() {
+        if (currentSection == 0) return;
+
+        sections.put(currentSection, new long[] { sectionStart, position() - sectionStart, sectionCount });
+    }
+
+    private long countOf(byte section) {
+        long[] entry = sections.get(section);
+        return entry == null ? 0 : entry[2];
+    }
+
+    private int reference(String value) {
+        if (value == null) return 0;
+
+        Integer index = dictionary.get(value);
+
+        if (index == null) {
+            index = dictionaryEntries.size() + 1;
+            dictionary.put(value, index);
+            dictionaryEntries.add(value);
+        }
+
+        return index;
+    }
+
+    private void putId(int id) {
+        putVarint(SnapshotFormat.zigzag(id - previousId));
+        previousId = id;
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+        if (bytes.length <= buffer.remaining()) {
+            buffer.put(bytes);
+            return;
+        }
+
+        flush();
+
+        if (bytes.length <= buffer.remaining()) {
+            buffer.put(bytes);
+        } else {
+            write(ByteBuffer.wrap(bytes));
+        }
+    }
+
+    private long position() {
+        return channelPosition + buffer.position();
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) flush();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    private void write(ByteBuffer source) throws IOException {
+        crc.update(source.duplicate());
+
+        while (source.hasRemaining()) channelPosition += channel.write(source);
+    }
+}
@@ -0,0 +1,51 @@
+package utils;
+
+import config.DBConnection;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+public class AsyncUtils {
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private static final Semaphore connectionPermits = new Semaphore(DBConnection.getMaximumPoolSize(), true);
+
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        ValidationUtils.validateNotNull(supplier, "supplier");
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                connectionPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException("Waiting for a database permit was interrupted.", e);
+            }
+
+            try {
+                return supplier.get();
+            } finally {
+                connectionPermits.release();
+            }
+        }, executor);
+    }
+
+    public static CompletableFuture<Void> runAsync(Runnable runnable) {
+        ValidationUtils.validateNotNull(runnable, "runnable");
+
+        return supplyAsync(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    public static int availablePermits() {
+        return connectionPermits.availablePermits();
+    }
+
+    public static int queuedCalls() {
+        return connectionPermits.getQueueLength();
+    }
+}
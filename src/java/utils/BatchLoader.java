@@ -0,0 +1,128 @@
+package utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class BatchLoader<K, V> {
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(2);
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1_000;
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "batch-loader-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Function<Collection<K>, Map<K, V>> batchFunction;
+    private final Function<K, RuntimeException> notFound;
+    private final Duration window;
+    private final int maxBatchSize;
+
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    private boolean dispatchScheduled;
+
+    public BatchLoader(Function<Collection<K>, Map<K, V>> batchFunction, Function<K, RuntimeException> notFound) {
+        this(batchFunction, notFound, DEFAULT_WINDOW, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public BatchLoader(Function<Collection<K>, Map<K, V>> batchFunction, Function<K, RuntimeException> notFound, Duration window, int maxBatchSize) {
+        ValidationUtils.validateNotNull(batchFunction, "batchFunction");
+        ValidationUtils.validateNotNull(notFound, "notFound");
+        ValidationUtils.validateNotNull(window, "window");
+        if (window.isNegative()) throw new IllegalArgumentException("window cannot be negative.");
+        if (maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize must be positive.");
+
+        this.batchFunction = batchFunction;
+        this.notFound = notFound;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public CompletableFuture<V> load(K key) {
+        ValidationUtils.validateNotNull(key, "key");
+
+        CompletableFuture<V> future;
+        boolean dispatchNow = false;
+
+        synchronized (this) {
+            future = pending.get(key);
+            if (future != null) return future;
+
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+
+            if (pending.size() >= maxBatchSize) {
+                dispatchNow = true;
+            } else if (!dispatchScheduled && !window.isZero()) {
+                dispatchScheduled = true;
+                scheduler.schedule(this::dispatchAsync, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (dispatchNow) dispatchAsync();
+
+        return future;
+    }
+
+    public List<CompletableFuture<V>> loadMany(Collection<K> keys) {
+        ValidationUtils.validateNotNull(keys, "keys");
+
+        List<CompletableFuture<V>> futures = new ArrayList<>(keys.size());
+        for (K key: keys) futures.add(load(key));
+
+        return futures;
+    }
+
+    public void dispatch() {
+        Map<K, CompletableFuture<V>> batch = takePending();
+        if (!batch.isEmpty()) complete(batch);
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    private void dispatchAsync() {
+        Map<K, CompletableFuture<V>> batch = takePending();
+        if (!batch.isEmpty()) AsyncUtils.runAsync(() -> complete(batch));
+    }
+
+    private synchronized Map<K, CompletableFuture<V>> takePending() {
+        Map<K, CompletableFuture<V>> batch = pending;
+
+        pending = new LinkedHashMap<>();
+        dispatchScheduled = false;
+
+        return batch;
+    }
+
+    private void complete(Map<K, CompletableFuture<V>> batch) {
+        Map<K, V> results;
+
+        try {
+            results = batchFunction.apply(batch.keySet());
+        } catch (RuntimeException e) {
+            for (CompletableFuture<V> future: batch.values()) future.completeExceptionally(e);
+            return;
+        }
+
+        for (Map.Entry<K, CompletableFuture<V>> entry: batch.entrySet()) {
+            V value = results.get(entry.getKey());
+
+            if (value != null) {
+                entry.getValue().complete(value);
+            } else {
+                entry.getValue().completeExceptionally(notFound.apply(entry.getKey()));
+            }
+        }
+    }
+}
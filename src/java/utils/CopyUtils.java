@@ -0,0 +1,70 @@
+package utils;
+
+import config.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Function;
+
+public class CopyUtils {
+    public static <T> int[] copyWithGeneratedIds(String table, String columns, List<T> rows, Function<T, Object[]> rowValues) throws SQLException {
+        String copySql = "copy " + table + " (id, " + columns + ") from stdin with (format csv)";
+        int[] ids = new int[rows.size()];
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                for (int from = 0; from < rows.size(); from += DBConnection.COPY_CHUNK_SIZE) {
+                    int to = Math.min(from + DBConnection.COPY_CHUNK_SIZE, rows.size());
+                    int[] chunkIds = reserveIds(conn, table, to - from);
+
+                    try (CsvCopyWriter writer = new CsvCopyWriter(conn, copySql)) {
+                        for (int i = from; i < to; i++) {
+                            Object[] values = rowValues.apply(rows.get(i));
+                            Object[] row = new Object[values.length + 1];
+
+                            row[0] = chunkIds[i - from];
+                            System.arraycopy(values, 0, row, 1, values.length);
+
+                            writer.writeRow(row);
+                        }
+
+                        writer.finish();
+                    }
+
+                    System.arraycopy(chunkIds, 0, ids, from, to - from);
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        return ids;
+    }
+
+    public static int[] reserveIds(Connection conn, String table, int count) throws SQLException {
+        String sqlQuery = "select nextval(pg_get_serial_sequence(?, 'id')) from generate_series(1, ?)";
+
+        try (PreparedStatement ps = conn.prepareStatement(sqlQuery)) {
+            ps.setString(1, table);
+            ps.setInt(2, count);
+
+            ResultSet rs = ps.executeQuery();
+            int[] ids = new int[count];
+            int i = 0;
+
+            while (rs.next()) ids[i++] = rs.getInt(1);
+
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package utils;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class CsvCopyWriter implements AutoCloseable {
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 1024);
+
+    public CsvCopyWriter(Connection conn, String copySql) throws SQLException {
+        this.copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+    }
+
+    public void writeRow(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) buffer.append(',');
+            appendValue(values[i]);
+        }
+
+        buffer.append('\n');
+
+        if (buffer.length() >= FLUSH_THRESHOLD) flush();
+    }
+
+    public long finish() throws SQLException {
+        flush();
+        return copyIn.endCopy();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (copyIn.isActive()) copyIn.cancelCopy();
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) return;
+
+        if (value instanceof String) {
+            buffer.append('"').append(((String) value).replace("\"", "\"\"")).append('"');
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.length() == 0) return;
+
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
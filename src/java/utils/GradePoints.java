@@ -0,0 +1,17 @@
+package utils;
+
+public class GradePoints {
+    public static final String SQL = "case when e.grade >= 90 then 4.0 when e.grade >= 80 then 3.0 when e.grade >= 70 then 2.0 when e.grade >= 60 then 1.0 else 0.0 end";
+
+    public static double of(int grade) {
+        if (grade >= 90) return 4.0;
+        if (grade >= 80) return 3.0;
+        if (grade >= 70) return 2.0;
+        if (grade >= 60) return 1.0;
+        return 0.0;
+    }
+
+    public static double round(double gpa) {
+        return Math.round(gpa * 100) / 100.0;
+    }
+}
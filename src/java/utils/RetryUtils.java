@@ -0,0 +1,59 @@
+package utils;
+
+import config.UnitOfWork;
+import exception.OptimisticLockException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+public class RetryUtils {
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+    private static final long BASE_BACKOFF_MICROS = 500;
+    private static final long MAX_BACKOFF_MICROS = 50_000;
+
+    public static <T> T call(Supplier<T> work) {
+        return call(DEFAULT_MAX_ATTEMPTS, work);
+    }
+
+    public static <T> T call(int maxAttempts, Supplier<T> work) {
+        ValidationUtils.validateNotNull(work, "work");
+        if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be positive.");
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            } catch (OptimisticLockException e) {
+                // Inside a unit of work the failed attempt's writes are still pending, so only the outer transaction can retry.
+                if (attempt >= maxAttempts || UnitOfWork.isActive()) throw e;
+
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    public static void run(Runnable work) {
+        run(DEFAULT_MAX_ATTEMPTS, work);
+    }
+
+    public static void run(int maxAttempts, Runnable work) {
+        ValidationUtils.validateNotNull(work, "work");
+
+        call(maxAttempts, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private static void backOff(int attempt, OptimisticLockException conflict) {
+        long ceiling = Math.min(MAX_BACKOFF_MICROS, BASE_BACKOFF_MICROS << Math.min(attempt - 1, 16));
+        long micros = ThreadLocalRandom.current().nextLong(ceiling + 1);
+
+        try {
+            Thread.sleep(micros / 1_000, (int) (micros % 1_000) * 1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -1,10 +1,20 @@
 package utils;
 
+import cache.InvalidationBus;
 import config.DBConnection;
+import interfaces.RowMapper;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class SqlUtils {
     public static void truncateTables(String... tables) {
@@ -22,8 +32,106 @@ public class SqlUtils {
                 Statement statement = connection.createStatement()
         ) {
             statement.executeUpdate(sqlQuery);
+
+            for (String table: tables) InvalidationBus.publishAll(connection, table);
         } catch (SQLException e) {
             throw new RuntimeException("Truncate error: " + e);
         }
     }
+
+    public static void setParameters(PreparedStatement ps, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            Object value = params.get(i);
+
+            if (value instanceof Integer[]) {
+                ps.setArray(i + 1, ps.getConnection().createArrayOf("integer", (Integer[]) value));
+            } else {
+                ps.setObject(i + 1, value);
+            }
+        }
+    }
+
+    public static String escapeLike(String text) {
+        return text
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    public static Integer[] toIntegerArray(int[] values) {
+        Integer[] boxed = new Integer[values.length];
+
+        for (int i = 0; i < values.length; i++) boxed[i] = values[i];
+
+        return boxed;
+    }
+
+    public static <T> Stream<T> stream(String sqlQuery, List<Object> params, int fetchSize, RowMapper<T> mapper) throws SQLException {
+        if (fetchSize < 1) throw new IllegalArgumentException("fetchSize must be positive.");
+
+        return stream(DBConnection.getReadConnection(), sqlQuery, params, fetchSize, mapper);
+    }
+
+    static <T> Stream<T> stream(Connection conn, String sqlQuery, List<Object> params, int fetchSize, RowMapper<T> mapper) throws SQLException {
+        PreparedStatement ps = null;
+
+        try {
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+
+            ps = conn.prepareStatement(sqlQuery, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            setParameters(ps, params);
+
+            return rowStream(conn, ps, ps.executeQuery(), mapper);
+        } catch (SQLException | RuntimeException e) {
+            abortStream(conn, ps, e);
+            throw e;
+        }
+    }
+
+    private static <T> Stream<T> rowStream(Connection conn, PreparedStatement ps, ResultSet rs, RowMapper<T> mapper) {
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) return false;
+
+                    action.accept(mapper.map(rs));
+
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Reading streamed rows failed.", e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> closeStream(conn, ps, rs));
+    }
+
+    // The connection goes back to the pool, so it must leave read-only and manual-commit mode even when the query failed.
+    private static void abortStream(Connection conn, PreparedStatement ps, Exception cause) {
+        try (conn) {
+            if (ps != null) ps.close();
+            if (!conn.getAutoCommit()) conn.rollback();
+
+            conn.setReadOnly(false);
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static void closeStream(Connection conn, PreparedStatement ps, ResultSet rs) {
+        try (conn) {
+            rs.close();
+            ps.close();
+            conn.commit();
+            conn.setReadOnly(false);
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            throw new RuntimeException("Closing streamed query failed.", e);
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+public class TopK<T> {
+    private final int k;
+    private final Comparator<? super T> comparator;
+    private final PriorityQueue<T> heap;
+
+    public TopK(int k, Comparator<? super T> comparator) {
+        if (k < 1) throw new IllegalArgumentException("k must be positive.");
+        ValidationUtils.validateNotNull(comparator, "comparator");
+
+        this.k = k;
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(Math.min(k, 1024) + 1, comparator.reversed());
+    }
+
+    public static <T> List<T> of(Iterator<? extends T> items, int k, Comparator<? super T> comparator) {
+        ValidationUtils.validateNotNull(items, "items");
+
+        TopK<T> top = new TopK<>(k, comparator);
+        while (items.hasNext()) top.offer(items.next());
+
+        return top.toList();
+    }
+
+    public static <T> List<T> of(Iterable<? extends T> items, int k, Comparator<? super T> comparator) {
+        ValidationUtils.validateNotNull(items, "items");
+        return of(items.iterator(), k, comparator);
+    }
+
+    public static <T> Collector<T, ?, List<T>> collector(int k, Comparator<? super T> comparator) {
+        if (k < 1) throw new IllegalArgumentException("k must be positive.");
+        ValidationUtils.validateNotNull(comparator, "comparator");
+
+        return Collector.of(
+                () -> new TopK<T>(k, comparator),
+                TopK::offer,
+                TopK::merge,
+                TopK::toList
+        );
+    }
+
+    public static <T, K extends Comparable<? super K>> Map<K, List<T>> perGroup(Stream<T> items, Function<? super T, ? extends K> key, int k, Comparator<? super T> comparator) {
+        ValidationUtils.validateNotNull(items, "items");
+        ValidationUtils.validateNotNull(key, "key");
+
+        if (k < 1) throw new IllegalArgumentException("k must be positive.");
+        ValidationUtils.validateNotNull(comparator, "comparator");
+
+        // Collectors.groupingBy rejects null keys, and students without a major still need a group.
+        Map<K, TopK<T>> groups = new TreeMap<>(Comparator.nullsLast(Comparator.<K>naturalOrder()));
+        items.forEachOrdered(item -> groups.computeIfAbsent(key.apply(item), ignored -> new TopK<>(k, comparator)).offer(item));
+
+        Map<K, List<T>> top = new TreeMap<>(Comparator.nullsLast(Comparator.<K>naturalOrder()));
+        groups.forEach((group, groupTop) -> top.put(group, groupTop.toList()));
+
+        return top;
+    }
+
+    public void offer(T item) {
+        if (heap.size() < k) {
+            heap.add(item);
+        } else if (comparator.compare(item, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+
+    public TopK<T> merge(TopK<T> other) {
+        for (T item: other.heap) offer(item);
+        return this;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public List<T> toList() {
+        List<T> items = new ArrayList<>(heap);
+        items.sort(comparator);
+
+        return items;
+    }
+}
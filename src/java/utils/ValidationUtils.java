@@ -8,6 +8,11 @@ public class ValidationUtils {
         if (id < 0) throw new IllegalArgumentException("id must be 0 or positive.");
     }
 
+    public static void validateIds(int[] ids, String logName) {
+        validateNotNull(ids, logName);
+        for (int id: ids) validateId(id);
+    }
+
     public static void validateString(String str, String logName) {
         validateNotNull(str, logName);
         if (str.trim().isEmpty())
@@ -30,6 +35,16 @@ public class ValidationUtils {
             throw new IllegalArgumentException("GPA must be between 0.0 and 4.0.");
     }
 
+    public static void validateCredits(int credits) {
+        if (credits < 1 || credits > 6)
+            throw new IllegalArgumentException("Credits must be between 1 and 6.");
+    }
+
+    public static void validateCapacity(Integer capacity) {
+        if (capacity != null && capacity < 0)
+            throw new IllegalArgumentException("Capacity must be 0 or positive.");
+    }
+
     public static void validateNotNull(Object obj, String logName) {
         if (obj == null)
             throw new NullPointerException(logName + " cannot be null.");
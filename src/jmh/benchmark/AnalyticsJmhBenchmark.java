@@ -0,0 +1,68 @@
+package benchmark;
+
+import analytics.AnalyticsDataset;
+import model.DateBucket;
+import model.GpaDistribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.AnalyticsService;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+// Runs on a generated in-memory dataset, so no database is needed.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class AnalyticsJmhBenchmark {
+    @Param({"500000"})
+    private int students;
+
+    @Param({"5000000"})
+    private int enrollments;
+
+    @Param({"true", "false"})
+    private boolean parallel;
+
+    private AnalyticsService service;
+
+    @Setup
+    public void generate() {
+        AnalyticsDataset dataset = AnalyticsBenchmark.generate(students, 2_000, enrollments);
+        service = parallel ? new AnalyticsService(dataset) : AnalyticsService.serial(dataset);
+    }
+
+    @Benchmark
+    public Map<String, GpaDistribution> gpaDistributionByMajor() {
+        return service.gpaDistributionByMajor(8);
+    }
+
+    @Benchmark
+    public Map<String, long[]> gradeHistogramsByDepartment() {
+        return service.gradeHistogramsByDepartment();
+    }
+
+    @Benchmark
+    public SortedMap<LocalDate, Long> enrollmentCountsByWeek() {
+        return service.enrollmentCountsByDate(DateBucket.WEEK);
+    }
+
+    @Benchmark
+    public int[] studentIdsByDepartment() {
+        return service.studentIdsByDepartment(BenchmarkData.MAJORS[0]);
+    }
+}
@@ -0,0 +1,72 @@
+package benchmark;
+
+import cache.NoOpCache;
+import model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.StudentRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Needs the database from db.properties; the trial setup reseeds it through BenchmarkData.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryJmhBenchmark {
+    private BenchmarkData data;
+    private StudentRepository studentRepository;
+    private StudentRepository uncachedStudentRepository;
+
+    @Setup
+    public void seed() throws SQLException {
+        data = new BenchmarkData();
+        data.seed();
+
+        studentRepository = new StudentRepository();
+        uncachedStudentRepository = new StudentRepository(new NoOpCache<>());
+    }
+
+    @Benchmark
+    public Optional<Student> findByIdCached() throws SQLException {
+        return studentRepository.findById(data.randomStudentId());
+    }
+
+    @Benchmark
+    public Optional<Student> findByIdUncached() throws SQLException {
+        return uncachedStudentRepository.findById(data.randomStudentId());
+    }
+
+    @Benchmark
+    public List<Student> findByIds100Uncached() throws SQLException {
+        List<Integer> ids = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) ids.add(data.randomStudentId());
+        return uncachedStudentRepository.findByIds(ids);
+    }
+
+    @Benchmark
+    public Optional<List<Student>> findAll() throws SQLException {
+        return studentRepository.findAll();
+    }
+
+    @Benchmark
+    public int update() throws SQLException {
+        Student student = studentRepository.findById(data.randomStudentId()).orElseThrow();
+        return studentRepository.update(student.getId(), student.getVersion(), Map.of("gpa", 3.0));
+    }
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import criteria.EnrollmentCriteria;
+import criteria.StudentCriteria;
+import model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.EnrollmentService;
+import service.StudentService;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Needs the database from db.properties; the trial setup reseeds it through BenchmarkData.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceJmhBenchmark {
+    private BenchmarkData data;
+    private StudentService studentService;
+    private EnrollmentService enrollmentService;
+
+    @Setup
+    public void seed() throws SQLException {
+        data = new BenchmarkData();
+        data.seed();
+
+        studentService = new StudentService();
+        enrollmentService = new EnrollmentService();
+    }
+
+    @Benchmark
+    public List<Student> findAndFilterStudentsCriteria() {
+        return studentService.findAndFilterStudents(StudentCriteria.gpaGreaterThan(3.5).and(StudentCriteria.majorEquals("Physics")));
+    }
+
+    @Benchmark
+    public List<Student> findAndFilterStudentsLambda() {
+        return studentService.findAndFilterStudents(s -> s.getGpa() > 3.5 && s.getMajor().equals("Physics"));
+    }
+
+    @Benchmark
+    public long countStudentsCriteria() {
+        return studentService.countStudents(StudentCriteria.yearBefore(2000));
+    }
+
+    @Benchmark
+    public List<Integer> getStudentIdsByDepartment() {
+        return enrollmentService.getStudentIdsByDepartment("Physics");
+    }
+
+    @Benchmark
+    public List<Student> findStudentsByEnrollmentCriteria() {
+        return enrollmentService.findStudentsByEnrollment(
+                EnrollmentCriteria.courseIdEquals(data.randomCourseId()).and(EnrollmentCriteria.dateAfter(LocalDate.of(2022, 1, 1)))
+        );
+    }
+
+    @Benchmark
+    public long countEnrollmentsCriteria() {
+        return enrollmentService.countEnrollments(EnrollmentCriteria.gradeAtLeast(90));
+    }
+}
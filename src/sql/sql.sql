@@ -5,14 +5,20 @@ create table student (
     name varchar,
     major varchar,
     year int,
-    gpa decimal
+    gpa decimal,
+    version int not null default 0
 );
 
 create table course (
     id serial primary key,
     title varchar,
     department varchar,
-    credits int
+    credits int,
+    capacity int check (capacity >= 0),
+    seats_taken int not null default 0,
+    version int not null default 0,
+
+    check (seats_taken >= 0 and (capacity is null or seats_taken <= capacity))
 );
 
 create table enrollment (
@@ -21,7 +27,15 @@ create table enrollment (
     course_id int references course(id),
     enrollment_date date,
     grade int,
+    version int not null default 0,
 
     unique (student_id, course_id)
 );
 
+create extension if not exists pg_trgm;
+
+create index student_name_trgm_idx on student using gin (name gin_trgm_ops);
+
+create index student_major_gpa_idx on student (major, gpa desc nulls last, id);
+
+create index enrollment_course_grade_idx on enrollment (course_id, grade desc nulls last, id);
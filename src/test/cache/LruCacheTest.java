@@ -0,0 +1,134 @@
+package cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LruCacheTest {
+    // Small integer keys hash to their own value, so keys 16 apart share one of the 16 segments.
+    private static final int SAME_SEGMENT = 16;
+
+    @Test
+    void evictsLeastRecentlyUsedEntryOfTheSegment() {
+        LruCache<Integer, String> cache = new LruCache<>(32);
+
+        cache.put(0, "a");
+        cache.put(SAME_SEGMENT, "b");
+        cache.get(0);
+        cache.put(2 * SAME_SEGMENT, "c");
+
+        assertEquals("a", cache.get(0));
+        assertNull(cache.get(SAME_SEGMENT));
+        assertEquals("c", cache.get(2 * SAME_SEGMENT));
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(2, cache.stats().getSize());
+    }
+
+    @Test
+    void entriesInOtherSegmentsAreNotEvicted() {
+        LruCache<Integer, String> cache = new LruCache<>(16);
+
+        for (int key = 0; key < 16; key++) cache.put(key, "v" + key);
+
+        for (int key = 0; key < 16; key++) assertEquals("v" + key, cache.get(key));
+        assertEquals(0, cache.stats().getEvictions());
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() throws InterruptedException {
+        LruCache<Integer, String> cache = new LruCache<>(32, Duration.ofMillis(20));
+
+        cache.put(1, "a");
+        assertEquals("a", cache.get(1));
+
+        Thread.sleep(50);
+
+        assertNull(cache.get(1));
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    void zeroTtlNeverExpires() throws InterruptedException {
+        LruCache<Integer, String> cache = new LruCache<>(32);
+
+        cache.put(1, "a");
+        Thread.sleep(20);
+
+        assertEquals("a", cache.get(1));
+    }
+
+    @Test
+    void putIfUnchangedIsDroppedAfterInvalidatingTheKey() {
+        LruCache<Integer, String> cache = new LruCache<>(32);
+
+        long generation = cache.generation(1);
+        cache.invalidate(1);
+        cache.putIfUnchanged(1, "stale", generation);
+
+        assertNull(cache.get(1));
+
+        cache.putIfUnchanged(1, "fresh", cache.generation(1));
+
+        assertEquals("fresh", cache.get(1));
+    }
+
+    @Test
+    void invalidatingOtherSegmentsDoesNotBlockFills() {
+        LruCache<Integer, String> cache = new LruCache<>(32);
+
+        long generation = cache.generation(1);
+        for (int key = 2; key < 16; key++) cache.invalidate(key);
+        cache.putIfUnchanged(1, "a", generation);
+
+        assertEquals("a", cache.get(1));
+    }
+
+    @Test
+    void invalidateAllBumpsEveryGeneration() {
+        LruCache<Integer, String> cache = new LruCache<>(32);
+
+        cache.put(1, "a");
+        cache.put(2, "b");
+
+        long generation1 = cache.generation(1);
+        long generation2 = cache.generation(2);
+        cache.invalidateAll();
+
+        assertNotEquals(generation1, cache.generation(1));
+        assertNotEquals(generation2, cache.generation(2));
+
+        cache.putIfUnchanged(1, "stale", generation1);
+
+        assertNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        LruCache<Integer, String> cache = new LruCache<>(32);
+
+        cache.put(1, "a");
+        cache.get(1);
+        cache.get(1);
+        cache.get(2);
+
+        CacheStats stats = cache.stats();
+
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(2 / 3.0, stats.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<Integer, String>(8));
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<Integer, String>(32, Duration.ofSeconds(-1)));
+    }
+}
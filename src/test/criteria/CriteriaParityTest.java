@@ -0,0 +1,248 @@
+package criteria;
+
+import model.Enrollment;
+import model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CriteriaParityTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
+    private final List<Student> students = List.of(
+            student(1, "Ada Lovelace", "Math", 2020, 3.9),
+            student(2, "Alan Turing", "Computer Science", 2021, 3.2),
+            student(3, "Grace Hopper", null, 2022, 2.5),
+            student(4, "Edsger Dijkstra", "Computer Science", 2019, 1.8),
+            student(5, "Barbara 100% Liskov", "Math", 2023, 4.0)
+    );
+
+    private final List<Enrollment> enrollments = List.of(
+            enrollment(1, 1, 10, 95, TODAY.minusDays(10)),
+            enrollment(2, 2, 10, 60, TODAY),
+            enrollment(3, 3, 11, 75, null),
+            enrollment(4, 4, 12, 40, TODAY.plusDays(5)),
+            enrollment(5, 5, 11, 100, null),
+            enrollment(6, 6, 12, null, TODAY)
+    );
+
+    @Test
+    void studentCriteriaMatchInSqlAndInMemory() {
+        List<Criteria<Student>> criteria = List.of(
+                StudentCriteria.majorEquals("Math"),
+                StudentCriteria.nameContains("Turing"),
+                StudentCriteria.nameContains("100%"),
+                StudentCriteria.yearBefore(2021),
+                StudentCriteria.yearAfter(2020),
+                StudentCriteria.gpaGreaterThan(3.0),
+                StudentCriteria.gpaBetween(2.0, 3.5),
+                StudentCriteria.idIn(Set.of(1, 3, 5)),
+                StudentCriteria.majorEquals("Math").or(StudentCriteria.gpaLessThan(2.0)),
+                StudentCriteria.majorEquals("Computer Science").and(StudentCriteria.yearAfter(2020))
+        );
+
+        assertParity(criteria, students, StudentColumns::of);
+    }
+
+    @Test
+    void enrollmentCriteriaMatchInSqlAndInMemory() {
+        List<Criteria<Enrollment>> criteria = List.of(
+                EnrollmentCriteria.dateAfter(TODAY.minusDays(1)),
+                EnrollmentCriteria.dateBefore(TODAY),
+                EnrollmentCriteria.dateBetween(TODAY.minusDays(30), TODAY),
+                EnrollmentCriteria.gradeBetween(60, 90),
+                EnrollmentCriteria.courseIdIn(Set.of(11)),
+                EnrollmentCriteria.studentIdEquals(4),
+                EnrollmentCriteria.dateAfter(TODAY).or(EnrollmentCriteria.gradeAtLeast(90))
+        );
+
+        assertParity(criteria, enrollments, EnrollmentColumns::of);
+    }
+
+    @Test
+    void negationKeepsRowsWithNullColumns() {
+        Criteria<Student> notMath = StudentCriteria.majorEquals("Math").negate();
+        List<Object> params = new ArrayList<>();
+
+        assertEquals("(major = ?) is not true", notMath.toSql(params));
+        assertEquals(List.of("Math"), params);
+        assertTrue(notMath.test(students.get(2)));
+        assertEquals(Boolean.TRUE, SqlEvaluator.evaluate(notMath.toSql(new ArrayList<>()), List.of("Math"), StudentColumns.of(students.get(2))));
+    }
+
+    private static <T> void assertParity(List<Criteria<T>> criteria, List<T> rows, Function<T, Map<String, Object>> columns) {
+        List<Criteria<T>> variants = new ArrayList<>();
+
+        for (Criteria<T> c: criteria) {
+            variants.add(c);
+            variants.add(c.negate());
+            variants.add(c.negate().negate());
+        }
+
+        for (int i = 0; i + 1 < criteria.size(); i++) {
+            variants.add(criteria.get(i).negate().and(criteria.get(i + 1)));
+            variants.add(criteria.get(i).or(criteria.get(i + 1)).negate());
+        }
+
+        for (Criteria<T> c: variants) {
+            List<Object> params = new ArrayList<>();
+            String sql = c.toSql(params);
+
+            for (T row: rows) {
+                // A WHERE clause only keeps rows whose condition is true; false and unknown are both dropped.
+                boolean inSql = Boolean.TRUE.equals(SqlEvaluator.evaluate(sql, params, columns.apply(row)));
+                assertEquals(c.test(row), inSql, sql + " for " + columns.apply(row));
+            }
+        }
+    }
+
+    private static Student student(int id, String name, String major, int year, double gpa) {
+        Student student = new Student(name, major, year, gpa);
+        student.setId(id);
+
+        return student;
+    }
+
+    private static Enrollment enrollment(int id, int studentId, int courseId, Integer grade, LocalDate date) {
+        Enrollment enrollment = new Enrollment(studentId, courseId, grade, date);
+        enrollment.setId(id);
+
+        return enrollment;
+    }
+
+    private static class StudentColumns {
+        static Map<String, Object> of(Student s) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", s.getId());
+            row.put("name", s.getName());
+            row.put("major", s.getMajor());
+            row.put("year", s.getYear());
+            row.put("gpa", s.getGpa());
+
+            return row;
+        }
+    }
+
+    private static class EnrollmentColumns {
+        static Map<String, Object> of(Enrollment e) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", e.getId());
+            row.put("student_id", e.getStudentId());
+            row.put("course_id", e.getCourseId());
+            row.put("grade", e.getGrade());
+            row.put("enrollment_date", e.getDate());
+
+            return row;
+        }
+    }
+
+    // Evaluates the SQL the criteria generate with PostgreSQL's three-valued logic; null stands for unknown.
+    private static class SqlEvaluator {
+        private final String sql;
+        private final List<Object> params;
+        private final Map<String, Object> row;
+        private int pos;
+        private int param;
+
+        private SqlEvaluator(String sql, List<Object> params, Map<String, Object> row) {
+            this.sql = sql;
+            this.params = params;
+            this.row = row;
+        }
+
+        static Boolean evaluate(String sql, List<Object> params, Map<String, Object> row) {
+            SqlEvaluator evaluator = new SqlEvaluator(sql, params, row);
+            Boolean result = evaluator.expression();
+
+            assertEquals(sql.length(), evaluator.pos, "unparsed SQL in " + sql);
+            assertEquals(params.size(), evaluator.param, "unused parameters in " + sql);
+
+            return result;
+        }
+
+        private Boolean expression() {
+            if (!accept("(")) return predicate();
+
+            Boolean left = expression();
+
+            if (accept(") is not true")) return !Boolean.TRUE.equals(left);
+
+            boolean and = accept(" and ");
+            if (!and) expect(" or ");
+
+            Boolean right = expression();
+            expect(")");
+
+            return and ? and(left, right) : or(left, right);
+        }
+
+        private Boolean predicate() {
+            int space = sql.indexOf(' ', pos);
+            String column = sql.substring(pos, space);
+            pos = space + 1;
+
+            assertTrue(row.containsKey(column), "unknown column " + column);
+            Object actual = row.get(column);
+
+            if (accept("like ? escape '\\'")) {
+                String pattern = (String) params.get(param++);
+                return actual == null ? null : ((String) actual).contains(unescapeContains(pattern));
+            }
+
+            if (accept("= any(?)")) {
+                Object[] values = (Object[]) params.get(param++);
+                return actual == null ? null : Arrays.asList(values).contains(actual);
+            }
+
+            for (Operator operator: new Operator[] { Operator.NOT_EQUALS, Operator.GREATER_OR_EQUAL, Operator.LESS_OR_EQUAL, Operator.EQUALS, Operator.GREATER_THAN, Operator.LESS_THAN }) {
+                if (accept(operator.getSymbol() + " ?")) {
+                    Object value = params.get(param++);
+                    return actual == null ? null : operator.matches(compare(actual, value));
+                }
+            }
+
+            throw new AssertionError("Unsupported SQL at " + sql.substring(pos));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static int compare(Object actual, Object value) {
+            return ((Comparable<Object>) actual).compareTo(value);
+        }
+
+        private static String unescapeContains(String pattern) {
+            assertTrue(pattern.startsWith("%") && pattern.endsWith("%"), "not a contains pattern: " + pattern);
+            return pattern.substring(1, pattern.length() - 1).replaceAll("\\\\(.)", "$1");
+        }
+
+        private static Boolean and(Boolean left, Boolean right) {
+            if (Boolean.FALSE.equals(left) || Boolean.FALSE.equals(right)) return false;
+            return left == null || right == null ? null : true;
+        }
+
+        private static Boolean or(Boolean left, Boolean right) {
+            if (Boolean.TRUE.equals(left) || Boolean.TRUE.equals(right)) return true;
+            return left == null || right == null ? null : false;
+        }
+
+        private boolean accept(String token) {
+            if (!sql.startsWith(token, pos)) return false;
+
+            pos += token.length();
+            return true;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) throw new AssertionError("Expected '" + token + "' at " + sql.substring(pos));
+        }
+    }
+}
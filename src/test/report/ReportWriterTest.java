@@ -0,0 +1,98 @@
+package report;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportWriterTest {
+    private static final List<ReportColumn<Object[]>> COLUMNS = List.of(
+            new ReportColumn<>("text", 10, row -> row[0]),
+            new ReportColumn<>("value", 6, row -> row[1])
+    );
+
+    @Test
+    void csvQuotesOnlyValuesThatNeedIt() {
+        String csv = write(ReportFormat.CSV,
+                new Object[] { "plain", 1 },
+                new Object[] { "a,b", 2.5 },
+                new Object[] { "say \"hi\"", null },
+                new Object[] { "two\nlines", true },
+                new Object[] { "cr\rhere", -3 }
+        );
+
+        assertEquals("text,value\n" +
+                "plain,1\n" +
+                "\"a,b\",2.5\n" +
+                "\"say \"\"hi\"\"\",\n" +
+                "\"two\nlines\",true\n" +
+                "\"cr\rhere\",-3\n", csv);
+    }
+
+    @Test
+    void csvWritesHeaderForEmptyReport() {
+        assertEquals("text,value\n", write(ReportFormat.CSV));
+    }
+
+    @Test
+    void jsonEscapesStringsAndControlCharacters() {
+        String json = write(ReportFormat.JSON_LINES,
+                new Object[] { "quote \" backslash \\", 1 },
+                new Object[] { "tab\tnewline\ncr\r", 2 },
+                new Object[] { "bell\u0007", 3 }
+        );
+
+        assertEquals("{\"text\":\"quote \\\" backslash \\\\\",\"value\":1}\n" +
+                "{\"text\":\"tab\\tnewline\\ncr\\r\",\"value\":2}\n" +
+                "{\"text\":\"bell\\u0007\",\"value\":3}\n", json);
+    }
+
+    @Test
+    void jsonWritesNumbersBooleansAndNullsUnquoted() {
+        String json = write(ReportFormat.JSON_LINES,
+                new Object[] { null, 3.25 },
+                new Object[] { 42, false }
+        );
+
+        assertEquals("{\"text\":null,\"value\":3.25}\n" +
+                "{\"text\":42,\"value\":false}\n", json);
+    }
+
+    @Test
+    void jsonWritesNonFiniteNumbersAsNull() {
+        String json = write(ReportFormat.JSON_LINES,
+                new Object[] { "nan", Double.NaN },
+                new Object[] { "inf", Double.POSITIVE_INFINITY },
+                new Object[] { "-inf", Float.NEGATIVE_INFINITY }
+        );
+
+        assertEquals("{\"text\":\"nan\",\"value\":null}\n" +
+                "{\"text\":\"inf\",\"value\":null}\n" +
+                "{\"text\":\"-inf\",\"value\":null}\n", json);
+    }
+
+    @Test
+    void tableTruncatesLongValuesAndCountsRows() {
+        String table = write(ReportFormat.TABLE, new Object[] { "a very long value", 7 });
+
+        assertEquals("+------------+--------+\n" +
+                "| text       | value  |\n" +
+                "+------------+--------+\n" +
+                "| a very lo~ | 7      |\n" +
+                "+------------+--------+\n" +
+                "1 row\n", table);
+    }
+
+    private static String write(ReportFormat format, Object[]... rows) {
+        StringWriter out = new StringWriter();
+
+        try (ReportWriter<Object[]> writer = new ReportWriter<>(out, true, format, COLUMNS, null)) {
+            writer.writeAll(Arrays.stream(rows));
+        }
+
+        return out.toString();
+    }
+}
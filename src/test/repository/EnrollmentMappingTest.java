@@ -0,0 +1,62 @@
+package repository;
+
+import model.Enrollment;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EnrollmentMappingTest {
+    @Test
+    void mapsAllColumns() throws SQLException {
+        Enrollment enrollment = EnrollmentRepository.mapEnrollment(row(Date.valueOf("2024-09-02"), 88));
+
+        assertEquals(5, enrollment.getId());
+        assertEquals(2, enrollment.getStudentId());
+        assertEquals(3, enrollment.getCourseId());
+        assertEquals(Integer.valueOf(88), enrollment.getGrade());
+        assertEquals(LocalDate.of(2024, 9, 2), enrollment.getDate());
+        assertEquals(4, enrollment.getVersion());
+    }
+
+    @Test
+    void mapsNullDateToNull() throws SQLException {
+        assertNull(EnrollmentRepository.mapEnrollment(row(null, 88)).getDate());
+    }
+
+    @Test
+    void mapsNullGradeToNullInsteadOfZero() throws SQLException {
+        assertNull(EnrollmentRepository.mapEnrollment(row(Date.valueOf("2024-09-02"), null)).getGrade());
+    }
+
+    @Test
+    void bindsMissingDateAsNull() {
+        assertNull(EnrollmentRepository.sqlDate(null));
+        assertEquals(Date.valueOf("2024-09-02"), EnrollmentRepository.sqlDate(LocalDate.of(2024, 9, 2)));
+    }
+
+    private static ResultSet row(Date date, Integer grade) {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("id", 5);
+        columns.put("student_id", 2);
+        columns.put("course_id", 3);
+        columns.put("grade", grade);
+        columns.put("version", 4);
+        columns.put("enrollment_date", date);
+
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class }, (proxy, method, args) -> switch (method.getName()) {
+            case "getInt" -> (Integer) columns.get((String) args[0]);
+            case "getDate" -> columns.get((String) args[0]);
+            case "getObject" -> ((Class<?>) args[1]).cast(columns.get((String) args[0]));
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class GradeHistogramTest {
+    @Test
+    void accumulatesCountsPerCourseAndGrade() {
+        Map<Integer, long[]> histograms = new HashMap<>();
+
+        EnrollmentRepository.addToHistogram(histograms, 1, 0, 3);
+        EnrollmentRepository.addToHistogram(histograms, 1, 100, 2);
+        EnrollmentRepository.addToHistogram(histograms, 2, 55, 1);
+
+        assertEquals(2, histograms.size());
+        assertEquals(3, histograms.get(1)[0]);
+        assertEquals(2, histograms.get(1)[100]);
+        assertEquals(1, histograms.get(2)[55]);
+    }
+
+    @Test
+    void repeatedRowsForOneGradeAreAddedNotOverwritten() {
+        Map<Integer, long[]> histograms = new HashMap<>();
+
+        EnrollmentRepository.addToHistogram(histograms, 1, 0, 4);
+        EnrollmentRepository.addToHistogram(histograms, 1, 0, 1);
+
+        assertEquals(5, histograms.get(1)[0]);
+    }
+
+    @Test
+    void skipsGradesOutsideTheHistogram() {
+        Map<Integer, long[]> histograms = new HashMap<>();
+
+        EnrollmentRepository.addToHistogram(histograms, 1, -1, 1);
+        EnrollmentRepository.addToHistogram(histograms, 1, 101, 1);
+
+        assertFalse(histograms.containsKey(1));
+    }
+}
@@ -0,0 +1,134 @@
+package repository;
+
+import exception.OptimisticLockException;
+import exception.StudentNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PartialUpdateStatementsTest {
+    private final PartialUpdateStatements statements = new PartialUpdateStatements("student", List.of("name", "major", "year"));
+
+    @Test
+    void sqlListsColumnsInDeclarationOrderAndBumpsVersion() {
+        Map<String, Object> updateMap = new LinkedHashMap<>();
+        updateMap.put("year", 2022);
+        updateMap.put("name", "Ada");
+
+        assertEquals("update student set name = ?, year = ?, version = version + 1 where id = ? and version = ?", statements.sqlFor(updateMap));
+        assertEquals("update student set name = ?, year = ?, version = version + 1 where id = any(?)", statements.sqlForMany(updateMap));
+    }
+
+    @Test
+    void sqlIsCachedPerColumnSet() {
+        assertSame(statements.sqlFor(Map.of("major", "math")), statements.sqlFor(Map.of("major", "physics")));
+    }
+
+    @Test
+    void rejectsUnknownAndEmptyUpdates() {
+        assertThrows(IllegalArgumentException.class, () -> statements.sqlFor(Map.of("gpa", 4.0)));
+        assertThrows(IllegalArgumentException.class, () -> statements.sqlFor(Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> new PartialUpdateStatements("student", List.of()));
+    }
+
+    @Test
+    void bindFollowsColumnOrderAndReturnsNextIndex() throws SQLException {
+        FakeDatabase db = new FakeDatabase(1, true);
+        Map<String, Object> updateMap = new LinkedHashMap<>();
+        updateMap.put("year", 2022);
+        updateMap.put("major", null);
+
+        int next = statements.bind(db.connection().prepareStatement("update"), updateMap);
+
+        assertEquals(3, next);
+        assertEquals(List.of("setObject 1 null", "setObject 2 2022"), db.bindings);
+    }
+
+    @Test
+    void updateBindsIdAndExpectedVersionAfterTheColumns() throws SQLException {
+        FakeDatabase db = new FakeDatabase(1, true);
+
+        statements.update(db.connection(), "Student", 7, 3, Map.of("name", "Ada"), () -> new StudentNotFoundException(7));
+
+        assertEquals(List.of("update student set name = ?, version = version + 1 where id = ? and version = ?"), db.statements);
+        assertEquals(List.of("setObject 1 Ada", "setInt 2 7", "setInt 3 3"), db.bindings);
+    }
+
+    @Test
+    void concurrentUpdateIsRejectedWhenTheVersionMoved() {
+        FakeDatabase db = new FakeDatabase(0, true);
+
+        assertThrows(OptimisticLockException.class, () -> statements.update(db.connection(), "Student", 7, 3, Map.of("name", "Ada"), () -> new StudentNotFoundException(7)));
+        assertEquals("select 1 from student where id = ?", db.statements.get(1));
+    }
+
+    @Test
+    void updateOfMissingRowRaisesNotFound() {
+        FakeDatabase db = new FakeDatabase(0, false);
+
+        assertThrows(StudentNotFoundException.class, () -> statements.update(db.connection(), "Student", 7, 3, Map.of("name", "Ada"), () -> new StudentNotFoundException(7)));
+    }
+
+    @Test
+    void successfulUpdateSkipsTheExistenceCheck() {
+        FakeDatabase db = new FakeDatabase(1, false);
+
+        assertDoesNotThrow(() -> statements.update(db.connection(), "Student", 7, 3, Map.of("year", 2022), () -> new StudentNotFoundException(7)));
+        assertEquals(1, db.statements.size());
+    }
+
+    private static class FakeDatabase {
+        private final int updatedRows;
+        private final boolean rowExists;
+        private final List<String> statements = new ArrayList<>();
+        private final List<String> bindings = new ArrayList<>();
+
+        private FakeDatabase(int updatedRows, boolean rowExists) {
+            this.updatedRows = updatedRows;
+            this.rowExists = rowExists;
+        }
+
+        private Connection connection() {
+            return proxy(Connection.class, (name, args) -> {
+                if (!name.equals("prepareStatement")) throw new UnsupportedOperationException(name);
+
+                statements.add((String) args[0]);
+                return statement();
+            });
+        }
+
+        private PreparedStatement statement() {
+            return proxy(PreparedStatement.class, (name, args) -> switch (name) {
+                case "setObject", "setInt" -> {
+                    bindings.add(name + " " + args[0] + " " + args[1]);
+                    yield null;
+                }
+                case "executeUpdate" -> updatedRows;
+                case "executeQuery" -> proxy(ResultSet.class, (resultName, resultArgs) -> rowExists);
+                case "close" -> null;
+                default -> throw new UnsupportedOperationException(name);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, Handler handler) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> handler.handle(method.getName(), args)));
+        }
+    }
+
+    private interface Handler {
+        Object handle(String name, Object[] args);
+    }
+}
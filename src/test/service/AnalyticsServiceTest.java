@@ -0,0 +1,67 @@
+package service;
+
+import analytics.AnalyticsDataset;
+import model.DateBucket;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalyticsServiceTest {
+    private static final int DAY = (int) LocalDate.of(2024, 9, 2).toEpochDay();
+
+    @Test
+    void enrollmentCountsSkipMissingDates() {
+        AnalyticsDataset dataset = dataset(DAY, AnalyticsDataset.NO_DAY, DAY + 1, DAY + 40, AnalyticsDataset.NO_DAY);
+
+        Map<LocalDate, Long> counts = AnalyticsService.serial(dataset).enrollmentCountsByDate(DateBucket.MONTH);
+
+        assertEquals(Map.of(LocalDate.of(2024, 9, 1), 2L, LocalDate.of(2024, 10, 1), 1L), counts);
+    }
+
+    @Test
+    void parallelCountsMatchSerialCounts() {
+        AnalyticsDataset dataset = dataset(DAY, AnalyticsDataset.NO_DAY, DAY + 1, DAY + 40, AnalyticsDataset.NO_DAY);
+
+        assertEquals(
+                AnalyticsService.serial(dataset).enrollmentCountsByDate(DateBucket.DAY),
+                new AnalyticsService(dataset, ForkJoinPool.commonPool(), 1).enrollmentCountsByDate(DateBucket.DAY)
+        );
+    }
+
+    @Test
+    void enrollmentCountsAreEmptyWhenNoEnrollmentHasADate() {
+        AnalyticsDataset dataset = dataset(AnalyticsDataset.NO_DAY, AnalyticsDataset.NO_DAY);
+
+        assertTrue(AnalyticsService.serial(dataset).enrollmentCountsByDate(DateBucket.DAY).isEmpty());
+    }
+
+    @Test
+    void gradeHistogramsSkipUngradedEnrollments() {
+        AnalyticsDataset dataset = new AnalyticsDataset(
+                new int[0], new int[0], new double[0], new String[0],
+                new int[] { -1, 0 }, new int[] { 0, 3 }, new String[] { "science" },
+                new int[] { 1, 2, 3 }, new int[] { 1, 1, 1 }, new int[3], new byte[] { 70, AnalyticsDataset.NO_GRADE, 70 }
+        );
+
+        long[] histogram = AnalyticsService.serial(dataset).gradeHistogramsByDepartment().get("science");
+
+        assertEquals(2, histogram[70]);
+        assertEquals(2, Arrays.stream(histogram).sum());
+    }
+
+    private static AnalyticsDataset dataset(int... days) {
+        int[] ids = new int[days.length];
+
+        return new AnalyticsDataset(
+                new int[0], new int[0], new double[0], new String[0],
+                new int[0], new int[0], new String[0],
+                ids, ids, days, new byte[days.length]
+        );
+    }
+}
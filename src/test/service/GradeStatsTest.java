@@ -0,0 +1,71 @@
+package service;
+
+import model.CourseGradeSummary;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GradeStatsTest {
+    @Test
+    void summarizesAddedGrades() {
+        GradeStats stats = new GradeStats();
+
+        stats.add(60, 1);
+        stats.add(80, 2);
+        stats.add(100, 1);
+
+        CourseGradeSummary summary = stats.toSummary(7);
+
+        assertEquals(7, summary.getCourseId());
+        assertEquals(4, summary.getCount());
+        assertEquals(80.0, summary.getAverage(), 1e-9);
+        assertEquals(Math.sqrt(200), summary.getStandardDeviation(), 1e-9);
+        assertEquals(60, summary.getMin());
+        assertEquals(100, summary.getMax());
+    }
+
+    @Test
+    void removeUpdatesMinMaxAndAverage() {
+        GradeStats stats = new GradeStats();
+
+        stats.add(0, 1);
+        stats.add(50, 1);
+        stats.add(100, 1);
+        stats.remove(0);
+        stats.remove(100);
+
+        CourseGradeSummary summary = stats.toSummary(1);
+
+        assertEquals(1, summary.getCount());
+        assertEquals(50.0, summary.getAverage(), 1e-9);
+        assertEquals(0.0, summary.getStandardDeviation(), 1e-9);
+        assertEquals(50, summary.getMin());
+        assertEquals(50, summary.getMax());
+    }
+
+    @Test
+    void removingAnAbsentGradeFailsInsteadOfHidingDrift() {
+        GradeStats stats = new GradeStats();
+
+        stats.add(70, 1);
+
+        assertThrows(IllegalStateException.class, () -> stats.remove(71));
+        assertEquals(1, stats.count());
+        assertEquals(70.0, stats.average(), 1e-9);
+    }
+
+    @Test
+    void emptyStatsSummarizeToZero() {
+        GradeStats stats = new GradeStats();
+
+        stats.add(90, 1);
+        stats.remove(90);
+
+        CourseGradeSummary summary = stats.toSummary(3);
+
+        assertEquals(0, summary.getCount());
+        assertEquals(0.0, summary.getAverage(), 1e-9);
+        assertEquals(0, stats.count());
+    }
+}
@@ -0,0 +1,60 @@
+package service;
+
+import analytics.AnalyticsDataset;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TranscriptServiceTest {
+    // Course 1 is worth 3 credits, course 2 is worth 1.
+    private static final int[] CREDITS_BY_COURSE_ID = { 0, 3, 1 };
+
+    @Test
+    void weightsGradePointsByCredits() {
+        double[] gpas = TranscriptService.computeGpas(dataset(
+                new int[] { 1 },
+                new int[] { 1, 1 },
+                new int[] { 1, 2 },
+                new byte[] { 95, 65 }
+        ));
+
+        assertArrayEquals(new double[] { 3.25 }, gpas, 1e-9);
+    }
+
+    @Test
+    void ungradedEnrollmentsCountTowardNeitherPointsNorCredits() {
+        double[] gpas = TranscriptService.computeGpas(dataset(
+                new int[] { 1 },
+                new int[] { 1, 1 },
+                new int[] { 1, 2 },
+                new byte[] { AnalyticsDataset.NO_GRADE, 85 }
+        ));
+
+        assertArrayEquals(new double[] { 3.0 }, gpas, 1e-9);
+    }
+
+    @Test
+    void studentsWithoutGradedCreditsHaveNoGpa() {
+        double[] gpas = TranscriptService.computeGpas(dataset(
+                new int[] { 1, 2, 3 },
+                new int[] { 1, 3 },
+                new int[] { 1, 2 },
+                new byte[] { AnalyticsDataset.NO_GRADE, 40 }
+        ));
+
+        assertEquals(3, gpas.length);
+        assertTrue(Double.isNaN(gpas[0]));
+        assertTrue(Double.isNaN(gpas[1]));
+        assertEquals(0.0, gpas[2], 1e-9);
+    }
+
+    private static AnalyticsDataset dataset(int[] studentIds, int[] enrollmentStudentIds, int[] enrollmentCourseIds, byte[] grades) {
+        return new AnalyticsDataset(
+                studentIds, new int[studentIds.length], new double[studentIds.length], new String[] { "math" },
+                new int[CREDITS_BY_COURSE_ID.length], CREDITS_BY_COURSE_ID, new String[] { "science" },
+                enrollmentStudentIds, enrollmentCourseIds, new int[enrollmentStudentIds.length], grades
+        );
+    }
+}
@@ -0,0 +1,191 @@
+package snapshot;
+
+import model.Course;
+import model.Enrollment;
+import model.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnapshotRoundTripTest {
+    private Path file;
+
+    @BeforeEach
+    void createFile() throws IOException {
+        file = Files.createTempFile("snapshot", ".scms");
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void currentVersionRoundTripsEveryColumn() throws IOException {
+        SnapshotInfo written = write(SnapshotFormat.VERSION);
+
+        try (SnapshotReader reader = SnapshotReader.open(file)) {
+            SnapshotInfo info = reader.info();
+
+            assertEquals(2, info.getStudentCount());
+            assertEquals(2, info.getCourseCount());
+            assertEquals(2, info.getEnrollmentCount());
+            assertEquals(written.getCreatedAt(), info.getCreatedAt());
+
+            List<Student> students = new ArrayList<>();
+            reader.forEachStudent(students::add);
+
+            assertEquals(3, students.get(0).getId());
+            assertEquals("Ada", students.get(0).getName());
+            assertEquals("math", students.get(0).getMajor());
+            assertEquals(2022, students.get(0).getYear());
+            assertEquals(3.5, students.get(0).getGpa(), 0);
+            assertEquals(40, students.get(1).getId());
+            assertNull(students.get(1).getMajor());
+
+            List<Course> courses = courses(reader);
+
+            assertEquals(7, courses.get(0).getId());
+            assertEquals("Algebra", courses.get(0).getTitle());
+            assertEquals("math", courses.get(0).getDepartment());
+            assertEquals(4, courses.get(0).getCredits());
+            assertEquals(Integer.valueOf(30), courses.get(0).getCapacity());
+            assertNull(courses.get(1).getCapacity());
+
+            List<Enrollment> enrollments = new ArrayList<>();
+            reader.forEachEnrollment(enrollments::add);
+
+            assertEquals(1, enrollments.get(0).getId());
+            assertEquals(3, enrollments.get(0).getStudentId());
+            assertEquals(7, enrollments.get(0).getCourseId());
+            assertEquals(LocalDate.of(2024, 9, 2), enrollments.get(0).getDate());
+            assertEquals(Integer.valueOf(91), enrollments.get(0).getGrade());
+            assertEquals(LocalDate.of(1969, 12, 31), enrollments.get(1).getDate());
+        }
+    }
+
+    @Test
+    void versionOneFilesReadWithoutCapacity() throws IOException {
+        write((short) 1);
+
+        try (SnapshotReader reader = SnapshotReader.open(file)) {
+            List<Course> courses = courses(reader);
+
+            assertEquals(2, courses.size());
+            assertEquals("Algebra", courses.get(0).getTitle());
+            assertEquals(4, courses.get(0).getCredits());
+            assertNull(courses.get(0).getCapacity());
+            assertEquals(12, courses.get(1).getId());
+
+            List<Enrollment> enrollments = new ArrayList<>();
+            reader.forEachEnrollment(enrollments::add);
+
+            assertEquals(2, enrollments.size());
+            assertEquals(Integer.valueOf(55), enrollments.get(1).getGrade());
+        }
+    }
+
+    @Test
+    void missingDatesAndGradesRoundTripAsNull() throws IOException {
+        try (SnapshotWriter writer = new SnapshotWriter(file)) {
+            writer.writeEnrollment(1, 3, 7, null, null);
+            writer.writeEnrollment(2, 3, 8, LocalDate.of(2024, 9, 2), 0);
+            writer.writeEnrollment(3, 3, 9, null, 100);
+            writer.finish();
+        }
+
+        try (SnapshotReader reader = SnapshotReader.open(file)) {
+            List<Enrollment> enrollments = new ArrayList<>();
+            reader.forEachEnrollment(enrollments::add);
+
+            assertNull(enrollments.get(0).getDate());
+            assertNull(enrollments.get(0).getGrade());
+            assertEquals(LocalDate.of(2024, 9, 2), enrollments.get(1).getDate());
+            assertEquals(Integer.valueOf(0), enrollments.get(1).getGrade());
+            assertNull(enrollments.get(2).getDate());
+            assertEquals(Integer.valueOf(100), enrollments.get(2).getGrade());
+        }
+    }
+
+    @Test
+    void versionTwoFilesStillRead() throws IOException {
+        write((short) 2);
+
+        try (SnapshotReader reader = SnapshotReader.open(file)) {
+            assertEquals(Integer.valueOf(30), courses(reader).get(0).getCapacity());
+
+            List<Enrollment> enrollments = new ArrayList<>();
+            reader.forEachEnrollment(enrollments::add);
+
+            assertEquals(LocalDate.of(1969, 12, 31), enrollments.get(1).getDate());
+            assertEquals(Integer.valueOf(55), enrollments.get(1).getGrade());
+        }
+    }
+
+    @Test
+    void olderVersionsRejectMissingDatesAndGrades() throws IOException {
+        try (SnapshotWriter writer = new SnapshotWriter(file, (short) 2)) {
+            assertThrows(IllegalArgumentException.class, () -> writer.writeEnrollment(1, 3, 7, null, 80));
+            assertThrows(IllegalArgumentException.class, () -> writer.writeEnrollment(1, 3, 7, LocalDate.of(2024, 9, 2), null));
+        }
+    }
+
+    @Test
+    void rejectsUnknownVersions() throws IOException {
+        write(SnapshotFormat.VERSION);
+
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(4);
+            raw.writeShort(SnapshotFormat.VERSION + 1);
+        }
+
+        assertThrows(IOException.class, () -> SnapshotReader.open(file));
+        assertThrows(IllegalArgumentException.class, () -> new SnapshotWriter(file, (short) 0));
+    }
+
+    @Test
+    void rejectsCorruptFiles() throws IOException {
+        write(SnapshotFormat.VERSION);
+
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(SnapshotFormat.HEADER_SIZE);
+            int value = raw.read();
+            raw.seek(SnapshotFormat.HEADER_SIZE);
+            raw.write(value ^ 0xFF);
+        }
+
+        assertThrows(IOException.class, () -> SnapshotReader.open(file));
+    }
+
+    private SnapshotInfo write(short version) throws IOException {
+        try (SnapshotWriter writer = new SnapshotWriter(file, version)) {
+            writer.writeStudent(3, "Ada", "math", 2022, 3.5);
+            writer.writeStudent(40, "Alan", null, 2021, 2.25);
+            writer.writeCourse(7, "Algebra", "math", 4, 30);
+            writer.writeCourse(12, "Logic", "math", 3, null);
+            writer.writeEnrollment(1, 3, 7, LocalDate.of(2024, 9, 2), 91);
+            writer.writeEnrollment(2, 40, 12, LocalDate.of(1969, 12, 31), 55);
+
+            return writer.finish();
+        }
+    }
+
+    private static List<Course> courses(SnapshotReader reader) throws IOException {
+        List<Course> courses = new ArrayList<>();
+        reader.forEachCourse(courses::add);
+
+        return courses;
+    }
+}
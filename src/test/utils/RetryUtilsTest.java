@@ -0,0 +1,51 @@
+package utils;
+
+import exception.OptimisticLockException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RetryUtilsTest {
+    @Test
+    void retriesConflictsUntilTheWorkSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        int result = RetryUtils.call(5, () -> {
+            if (attempts.incrementAndGet() < 3) throw new OptimisticLockException("Student", 1, attempts.get());
+            return 42;
+        });
+
+        assertEquals(42, result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(OptimisticLockException.class, () -> RetryUtils.run(3, () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockException("Student", 1, 0);
+        }));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> RetryUtils.run(3, () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void rejectsNonPositiveMaxAttempts() {
+        assertThrows(IllegalArgumentException.class, () -> RetryUtils.call(0, () -> null));
+    }
+}
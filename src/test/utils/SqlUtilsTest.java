@@ -0,0 +1,101 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqlUtilsTest {
+    private final List<String> calls = new ArrayList<>();
+    private boolean autoCommit = true;
+
+    @Test
+    void failedQueryClosesStatementAndResetsConnection() {
+        Connection conn = connection(false);
+
+        assertThrows(SQLException.class, () -> SqlUtils.stream(conn, "select 1", List.of(), 10, rs -> rs.getInt(1)));
+        assertEquals(List.of("setAutoCommit false", "setReadOnly true", "setFetchSize", "executeQuery", "ps.close", "rollback", "setReadOnly false", "setAutoCommit true", "close"), calls);
+    }
+
+    @Test
+    void closingTheStreamCommitsAndResetsConnection() throws SQLException {
+        Connection conn = connection(true);
+
+        try (Stream<Integer> rows = SqlUtils.stream(conn, "select 1", List.of(), 10, rs -> rs.getInt(1))) {
+            assertEquals(List.of(), rows.toList());
+        }
+
+        assertEquals(List.of("setAutoCommit false", "setReadOnly true", "setFetchSize", "executeQuery", "next", "rs.close", "ps.close", "commit", "setReadOnly false", "setAutoCommit true", "close"), calls);
+    }
+
+    private Connection connection(boolean querySucceeds) {
+        return proxy(Connection.class, (name, args) -> switch (name) {
+            case "setAutoCommit" -> {
+                autoCommit = (Boolean) args[0];
+                calls.add(name + " " + args[0]);
+                yield null;
+            }
+            case "setReadOnly" -> {
+                calls.add(name + " " + args[0]);
+                yield null;
+            }
+            case "getAutoCommit" -> autoCommit;
+            case "prepareStatement" -> statement(querySucceeds);
+            case "commit", "rollback", "close" -> {
+                calls.add(name);
+                yield null;
+            }
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private PreparedStatement statement(boolean querySucceeds) {
+        return proxy(PreparedStatement.class, (name, args) -> switch (name) {
+            case "setFetchSize" -> {
+                calls.add(name);
+                yield null;
+            }
+            case "executeQuery" -> {
+                calls.add(name);
+                if (!querySucceeds) throw new SQLException("relation does not exist");
+                yield resultSet();
+            }
+            case "close" -> {
+                calls.add("ps.close");
+                yield null;
+            }
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private ResultSet resultSet() {
+        return proxy(ResultSet.class, (name, args) -> switch (name) {
+            case "next" -> {
+                calls.add(name);
+                yield false;
+            }
+            case "close" -> {
+                calls.add("rs.close");
+                yield null;
+            }
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> handler.handle(method.getName(), args)));
+    }
+
+    private interface Handler {
+        Object handle(String name, Object[] args) throws SQLException;
+    }
+}
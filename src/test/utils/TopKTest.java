@@ -0,0 +1,97 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TopKTest {
+    @Test
+    void keepsTheKSmallestInComparatorOrder() {
+        assertEquals(List.of(1, 2, 3), TopK.of(List.of(5, 3, 9, 1, 7, 2), 3, Comparator.naturalOrder()));
+        assertEquals(List.of(9, 7), TopK.of(List.of(5, 3, 9, 1, 7, 2), 2, Comparator.reverseOrder()));
+    }
+
+    @Test
+    void returnsEverythingWhenFewerThanKItems() {
+        assertEquals(List.of(1, 2), TopK.of(List.of(2, 1), 5, Comparator.naturalOrder()));
+        assertEquals(List.of(), TopK.of(List.<Integer>of(), 5, Comparator.naturalOrder()));
+    }
+
+    @Test
+    void matchesSortingOnRandomInput() {
+        Random random = new Random(42);
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) values.add(random.nextInt(1_000));
+
+        List<Integer> sorted = new ArrayList<>(values);
+        sorted.sort(Comparator.reverseOrder());
+
+        assertEquals(sorted.subList(0, 25), TopK.of(values, 25, Comparator.reverseOrder()));
+    }
+
+    @Test
+    void mergeKeepsTheBestOfBothSides() {
+        TopK<Integer> left = new TopK<>(3, Comparator.naturalOrder());
+        TopK<Integer> right = new TopK<>(3, Comparator.naturalOrder());
+
+        Arrays.asList(10, 4, 8, 6).forEach(left::offer);
+        Arrays.asList(5, 1, 9).forEach(right::offer);
+
+        TopK<Integer> merged = left.merge(right);
+
+        assertEquals(List.of(1, 4, 5), merged.toList());
+        assertEquals(3, merged.size());
+    }
+
+    @Test
+    void mergeWithEmptySideIsUnchanged() {
+        TopK<Integer> top = new TopK<>(2, Comparator.naturalOrder());
+        Arrays.asList(3, 1, 2).forEach(top::offer);
+
+        assertEquals(List.of(1, 2), top.merge(new TopK<>(2, Comparator.naturalOrder())).toList());
+        assertEquals(List.of(1, 2), new TopK<Integer>(2, Comparator.naturalOrder()).merge(top).toList());
+    }
+
+    @Test
+    void parallelCollectorMatchesSequentialCollector() {
+        List<Integer> values = new Random(7).ints(50_000, 0, 100_000).boxed().toList();
+
+        assertEquals(
+                values.stream().collect(TopK.collector(100, Comparator.naturalOrder())),
+                values.parallelStream().collect(TopK.collector(100, Comparator.naturalOrder()))
+        );
+    }
+
+    @Test
+    void perGroupKeepsTopKPerKeyIncludingNullKeys() {
+        Map<String, List<String>> top = TopK.perGroup(
+                Stream.of("b3", "a1", "b9", "a5", "b7", "x2", "-4", "-8"),
+                item -> item.startsWith("-") ? null : item.substring(0, 1),
+                2,
+                Comparator.comparing((String item) -> item.charAt(1)).reversed()
+        );
+
+        assertEquals(Arrays.asList("a", "b", "x", null), new ArrayList<>(top.keySet()));
+        assertEquals(List.of("a5", "a1"), top.get("a"));
+        assertEquals(List.of("b9", "b7"), top.get("b"));
+        assertEquals(List.of("x2"), top.get("x"));
+        assertEquals(List.of("-8", "-4"), top.get(null));
+    }
+
+    @Test
+    void rejectsNonPositiveK() {
+        assertThrows(IllegalArgumentException.class, () -> new TopK<>(0, Comparator.<Integer>naturalOrder()));
+        assertThrows(IllegalArgumentException.class, () -> TopK.collector(0, Comparator.<Integer>naturalOrder()));
+        assertThrows(IllegalArgumentException.class, () -> TopK.perGroup(IntStream.range(0, 3).boxed(), i -> i, 0, Comparator.naturalOrder()));
+    }
+}